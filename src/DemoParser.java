@@ -1,10 +1,12 @@
 import java.io.File;
 import java.util.ArrayList;
 
+import dependencyExtraction.BatchScheduler;
 import dependencyExtraction.DependencyGenerator;
 import dependencyExtraction.HanLPDependencyExtractor;
 import edu.stanford.nlp.trees.GrammaticalRelation;
 import edu.stanford.nlp.trees.international.pennchinese.UniversalChineseGrammaticalRelations;
+import profiling.DocumentEvent;
 import utils.TableReader;
 
 /**
@@ -16,8 +18,20 @@ public class DemoParser {
 	/**
 	 * Execute Stanford Parser to get dependency pairs.
 	 * @param dirPath - directory of input files
+	 * @return number of documents that failed
 	 */
-	public static void executeStanfordParser(String dirPath) {
+	public static int executeStanfordParser(String dirPath) {
+		return DemoParser.executeStanfordParser(dirPath, 1);
+	}
+	
+	/**
+	 * Execute Stanford Parser to get dependency pairs.
+	 * @param dirPath - directory of input files
+	 * @param workers - number of documents parsed at the same time, largest
+	 * first when more than 1
+	 * @return number of documents that failed
+	 */
+	public static int executeStanfordParser(String dirPath, int workers) {
 		File dir = new File(dirPath);
 		DependencyGenerator gen = new DependencyGenerator();
 		ArrayList<GrammaticalRelation> criteria = new ArrayList<>();
@@ -31,8 +45,14 @@ public class DemoParser {
 			File directory = new File(depType.substring(0, depType.length() - 1));
 			directory.mkdir();
 		}
-		for(final File file : dir.listFiles())
-			gen.generate(file, criteria, outputDirs);
+		int failed = 0;
+		if(workers > 1)
+			failed = new BatchScheduler(gen, workers).run(dir.listFiles(), criteria,
+					outputDirs);
+		else
+			for(final File file : dir.listFiles())
+				gen.generate(file, criteria, outputDirs);
+		return failed + gen.getFailures();
 	}
 	
 	/**
@@ -52,6 +72,8 @@ public class DemoParser {
 			directory.mkdir();
 		}
 		for(final File file : dir.listFiles()) {
+			DocumentEvent event = new DocumentEvent();
+			event.begin();
 			extr.buildDep(file.getPath(), option);
 			extr.getSingleComp(outputDirs[0], file.getName(), "S");
 			extr.getSingleComp(outputDirs[1], file.getName(), "V");
@@ -59,6 +81,12 @@ public class DemoParser {
 			extr.getSV(outputDirs[3], file.getName());
 			extr.getVO(outputDirs[4], file.getName());
 			extr.getSO(outputDirs[5], file.getName());
+			if(event.shouldCommit()) { //Parse and extraction, as for Stanford
+				event.file = file.getName();
+				event.bytes = file.length();
+				event.backend = "hanlp";
+				event.commit();
+			}
 		}
 	}
 	
@@ -0,0 +1,83 @@
+import java.io.File;
+import java.io.IOException;
+
+import stmData.LDACMatrix;
+import utils.Pipeline;
+import utils.TableReader;
+
+/**
+ * Run the whole toolkit as an incremental pipeline: CSV split, parse and
+ * extraction, matrix build and R model of each combination. Only stages
+ * whose inputs or settings changed since the last run are executed again.
+ * @since 10-19-2026
+ */
+public class ToolkitPipeline {
+	static final String[] COMBINATIONS = {"S", "V", "O", "SV", "VO", "SO"};
+
+	/**
+	 * Build the pipeline.
+	 * @param table - CSV table of documents, with a header row
+	 * @param srcDir - directory of text files to parse
+	 * @param textCol - index of the text column of the table
+	 * @param script - path to Experiment.R
+	 * @param threads - maximum number of stages running at the same time
+	 * @return the pipeline ready to run
+	 */
+	public static Pipeline build(String table, String srcDir, int textCol,
+			String script, int threads) {
+		Pipeline pipeline = new Pipeline(new File(".pipeline"), threads);
+		pipeline.addStage("split", new String[0], new File[] {new File(table)},
+				new File[] {new File(srcDir)}, "split:" + srcDir + ":" + textCol,
+				() -> {
+					if(TableReader.tableToFiles(table, srcDir, textCol, true) < 0)
+						throw new IOException("Cannot split " + table);
+				});
+
+		File[] outputDirs = new File[COMBINATIONS.length];
+		for(int i = 0; i < COMBINATIONS.length; i++)
+			outputDirs[i] = new File(COMBINATIONS[i]);
+		pipeline.addStage("parse", new String[] {"split"}, new File[] {new
+				File(srcDir), new File("chinese.properties")}, outputDirs,
+				"parse:stanford", () -> {
+					int failed = DemoParser.executeStanfordParser(srcDir);
+					if(failed > 0)
+						throw new IOException(failed + " documents failed to parse");
+				});
+
+		for(String combi : COMBINATIONS) {
+			pipeline.addStage("matrix" + combi, new String[] {"parse"}, new File[]
+					{new File(combi)}, new File[] {new File("vocab" + combi), new
+							File("mat" + combi + ".ldac")}, "matrix",
+					() -> LDACMatrix.build(".", combi));
+			pipeline.addStage("model" + combi, new String[] {"matrix" + combi},
+					new File[] {new File("vocab" + combi), new File("mat" + combi +
+							".ldac"), new File(script)}, new File[] {new File("theta" +
+									combi + ".csv")}, "model", () -> runModel(script, combi));
+		}
+		return pipeline;
+	}
+
+	private static void runModel(String script, String combi) throws
+	IOException, InterruptedException {
+		ProcessBuilder pb = new ProcessBuilder("Rscript", script, combi);
+		pb.inheritIO();
+		int status = pb.start().waitFor();
+		if(status != 0)
+			throw new IOException("Rscript exited with " + status + " for " + combi);
+	}
+
+	/**
+	 * Arguments: CSV table, source directory, and optionally path to
+	 * Experiment.R, number of parallel stages and index of the text column
+	 * (2 by default).
+	 */
+	public static void main(String[] args) {
+		String script = args.length > 2 ? args[2] : "stmData/Experiment.R";
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) :
+			Runtime.getRuntime().availableProcessors();
+		int textCol = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+		if(!ToolkitPipeline.build(args[0], args[1], textCol, script, threads)
+				.run())
+			System.exit(1);
+	}
+}
@@ -0,0 +1,198 @@
+package dependencyExtraction;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.stanford.nlp.trees.GrammaticalRelation;
+
+/**
+ * A batch scheduler that estimates the parse cost of each document from its
+ * sentence lengths and dispatches the most expensive documents first
+ * (longest processing time first), so a run does not end waiting on one
+ * straggler. Documents of several sentences larger than a fair share of the
+ * whole batch are split by sentence across a sentence pool, while the other
+ * workers go on with the rest. The makespan of this schedule is estimated
+ * before dispatch and compared with the actual one at the end.
+ * @since 10-19-2026
+ */
+public class BatchScheduler {
+	/* Parsing with a PCFG is cubic in sentence length */
+	static final double COST_EXPONENT = 3;
+
+	private DependencyGenerator gen;
+	private int workers;
+	private double rate;
+
+	private static class Job {
+		File file;
+		int sentences;
+		double cost;
+		boolean split;
+		double seconds;
+	}
+
+	/**
+	 * Constructor.
+	 * @param gen - generator shared by all workers
+	 * @param workers - number of documents processed at the same time
+	 */
+	public BatchScheduler(DependencyGenerator gen, int workers) {
+		this.gen = gen;
+		this.workers = workers;
+	}
+
+	/**
+	 * Set the expected parse time per cost unit, so the estimate before
+	 * dispatch is also given in seconds. The rate measured by a run is printed
+	 * at its end.
+	 * @param secondsPerCost - seconds per cost unit, or 0 if unknown
+	 */
+	public void setRate(double secondsPerCost) {
+		this.rate = secondsPerCost;
+	}
+
+	/**
+	 * Process all files, largest estimated cost first.
+	 * @param files - input files to process
+	 * @param criteria - phrase extraction criteria
+	 * @param outputDirs - a list of output directory names
+	 * @return number of documents that failed with an exception
+	 */
+	public int run(File[] files, List<GrammaticalRelation> criteria, String[]
+			outputDirs) {
+		ArrayList<Job> jobs = new ArrayList<>();
+		double total = 0;
+		for(File file : files) {
+			Job job = this.estimate(file);
+			jobs.add(job);
+			total += job.cost;
+		}
+		Collections.sort(jobs, (a, b) -> Double.compare(b.cost, a.cost));
+
+		/* A document above its fair share would be the straggler: split it,
+		 * unless it is a single sentence which can not be split */
+		double fairShare = total / this.workers;
+		boolean anySplit = false;
+		for(Job job : jobs) {
+			job.split = this.workers > 1 && job.sentences > 1 && job.cost > fairShare;
+			anySplit |= job.split;
+		}
+		double estimated = this.estimate(jobs);
+		System.out.println(String.format("Estimated makespan: %.4g cost units%s",
+				estimated, this.rate > 0 ? String.format(" (%.1f s)", estimated *
+						this.rate) : ""));
+
+		/* Reuse the caller's sentence pool, or create one for split documents */
+		ExecutorService previous = this.gen.getSentencePool();
+		ExecutorService sentencePool = previous != null || !anySplit ? previous :
+			Executors.newFixedThreadPool(this.workers);
+		long start = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(this.workers);
+		List<Future<?>> futures = new ArrayList<>();
+		for(Job job : jobs) //Already sorted by cost
+			futures.add(pool.submit(() -> {
+				long t = System.nanoTime();
+				this.gen.generate(job.file, criteria, outputDirs, job.split ?
+						sentencePool : previous);
+				job.seconds = (System.nanoTime() - t) / 1e9;
+			}));
+		pool.shutdown();
+		int failed = 0;
+		for(Future<?> future : futures)
+			try {
+				future.get();
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+				failed++;
+			}
+		if(sentencePool != previous)
+			sentencePool.shutdown();
+		double actual = (System.nanoTime() - start) / 1e9;
+		this.report(jobs, total, estimated, actual);
+		return failed;
+	}
+
+	/* LPT makespan in cost units; a split document is spread over all workers */
+	private double estimate(List<Job> jobs) {
+		double[] loads = new double[this.workers];
+		for(Job job : jobs) { //Already sorted by cost
+			if(job.split) {
+				for(int i = 0; i < loads.length; i++)
+					loads[i] += job.cost / this.workers;
+				continue;
+			}
+			int min = 0;
+			for(int i = 1; i < loads.length; i++)
+				if(loads[i] < loads[min]) min = i;
+			loads[min] += job.cost;
+		}
+		double makespan = 0;
+		for(double load : loads)
+			makespan = Math.max(makespan, load);
+		return makespan;
+	}
+
+	/**
+	 * Estimate parse cost of a document as the sum of sentence length to the
+	 * power of COST_EXPONENT.
+	 */
+	private Job estimate(File file) {
+		Job job = new Job();
+		job.file = file;
+		StringBuilder sb = new StringBuilder();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(new
+				FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line = null;
+			while((line = reader.readLine()) != null)
+				sb.append(line);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		for(String sentence : sb.toString().split(
+				DependencyGenerator.SENTENCE_BOUNDARY)) {
+			int length = SentenceCache.normalize(sentence).length();
+			if(length == 0) continue;
+			job.sentences++;
+			job.cost += Math.pow(length, COST_EXPONENT);
+		}
+		return job;
+	}
+
+	/* Compare the estimate made before dispatch with the actual run */
+	private void report(List<Job> jobs, double total, double estimated,
+			double actual) {
+		double busy = 0;
+		int split = 0;
+		for(Job job : jobs) {
+			busy += job.split ? job.seconds * this.workers : job.seconds;
+			if(job.split) split++;
+		}
+		double measured = total > 0 ? busy / total : 0;
+
+		System.out.println(String.format("Scheduled %d documents (%d split by "
+				+ "sentence) on %d workers", jobs.size(), split, this.workers));
+		System.out.println(String.format("Estimated makespan: %.4g cost units%s, "
+				+ "actual makespan: %.1f s, lower bound: %.1f s", estimated,
+				this.rate > 0 ? String.format(" = %.1f s", estimated * this.rate) : "",
+				actual, busy / this.workers));
+		System.out.println(String.format("Measured rate: %.4g s per cost unit "
+				+ "(pass with -rate to estimate seconds)", measured));
+		if(!jobs.isEmpty()) {
+			Job slowest = Collections.max(jobs, (a, b) -> Double.compare(
+					a.seconds, b.seconds));
+			System.out.println(String.format("Slowest document: %s (%d sentences, "
+					+ "%.1f s)", slowest.file.getName(), slowest.sentences,
+					slowest.seconds));
+		}
+	}
+}
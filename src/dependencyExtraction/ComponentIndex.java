@@ -0,0 +1,391 @@
+package dependencyExtraction;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * An on-disk inverted index from extracted S, V, O, SV, VO and SO terms to
+ * the sorted IDs of documents containing them. Postings are delta and varint
+ * compressed and memory-mapped for reading; the term dictionary is kept in
+ * memory and sorted, so prefix queries are a range of it.
+ * <p>
+ * Each component file holds all postings, then the dictionary (term, document
+ * frequency, postings offset), and ends with the dictionary offset and the
+ * number of terms. Files are mapped in chunks, so they may exceed 2 GB.
+ * @since 10-19-2026
+ */
+public class ComponentIndex {
+	static final String[] COMPONENTS = {"S", "V", "O", "SV", "VO", "SO"};
+	static final String DOCS = "docs.txt";
+	/* Files are mapped in chunks of 2^CHUNK_BITS bytes */
+	static final int CHUNK_BITS = 30;
+
+	private String[] docs;
+	private HashMap<String, String[]> terms;
+	private HashMap<String, int[]> dfs;
+	private HashMap<String, long[]> offsets;
+	private HashMap<String, MappedByteBuffer[]> postings;
+
+	/**
+	 * Open an index for reading.
+	 * @param indexDir - directory written by build
+	 * @throws IOException if the index cannot be read
+	 */
+	public ComponentIndex(String indexDir) throws IOException {
+		ArrayList<String> names = new ArrayList<>();
+		try(Scanner sc = new Scanner(new FileInputStream(indexDir + "/" + DOCS),
+				StandardCharsets.UTF_8.toString())) {
+			while(sc.hasNextLine())
+				names.add(sc.nextLine());
+		}
+		this.docs = names.toArray(new String[names.size()]);
+		this.terms = new HashMap<>();
+		this.dfs = new HashMap<>();
+		this.offsets = new HashMap<>();
+		this.postings = new HashMap<>();
+		for(String comp : COMPONENTS) {
+			File file = new File(indexDir + "/" + comp + ".idx");
+			if(file.exists())
+				this.load(comp, file);
+		}
+	}
+
+	private void load(String comp, File file) throws IOException {
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r");
+				FileChannel channel = raf.getChannel()) {
+			long size = channel.size();
+			long chunk = 1L << CHUNK_BITS;
+			MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + chunk - 1)
+					>>> CHUNK_BITS)];
+			for(int i = 0; i < chunks.length; i++)
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, i * chunk,
+						Math.min(chunk, size - i * chunk));
+			Cursor cursor = new Cursor(chunks, size - 12);
+			long dictOffset = cursor.readLong();
+			int count = (int) cursor.readLong(4);
+			String[] compTerms = new String[count];
+			int[] compDfs = new int[count];
+			long[] compOffsets = new long[count];
+			cursor.pos = dictOffset;
+			long offset = 0;
+			for(int i = 0; i < count; i++) {
+				byte[] bytes = new byte[(int) cursor.readVarint()];
+				for(int k = 0; k < bytes.length; k++)
+					bytes[k] = cursor.get();
+				compTerms[i] = new String(bytes, StandardCharsets.UTF_8);
+				compDfs[i] = (int) cursor.readVarint();
+				offset += cursor.readVarint();
+				compOffsets[i] = offset;
+			}
+			this.terms.put(comp, compTerms);
+			this.dfs.put(comp, compDfs);
+			this.offsets.put(comp, compOffsets);
+			this.postings.put(comp, chunks);
+		}
+	}
+
+	/**
+	 * @param id - document ID
+	 * @return file name of the document
+	 */
+	public String docName(int id) {
+		return this.docs[id];
+	}
+
+	/**
+	 * Look up documents containing a term.
+	 * @param comp - component, e.g. "SV"
+	 * @param term - exact term, e.g. a subject-verb pair
+	 * @return sorted document IDs
+	 */
+	public int[] term(String comp, String term) {
+		String[] compTerms = this.terms.get(comp);
+		if(compTerms == null) return new int[0];
+		int i = Arrays.binarySearch(compTerms, term);
+		return i < 0 ? new int[0] : this.decode(comp, i);
+	}
+
+	/**
+	 * Look up documents containing any term starting with a prefix.
+	 * @param comp - component, e.g. "SV"
+	 * @param prefix - term prefix, e.g. a subject followed by "-"
+	 * @return sorted document IDs
+	 */
+	public int[] prefix(String comp, String prefix) {
+		String[] compTerms = this.terms.get(comp);
+		if(compTerms == null) return new int[0];
+		int i = Arrays.binarySearch(compTerms, prefix);
+		if(i < 0) i = -i - 1;
+		/* One bit per document, so many matching terms stay linear */
+		BitSet result = new BitSet(this.docs.length);
+		for(; i < compTerms.length && compTerms[i].startsWith(prefix); i++)
+			for(int id : this.decode(comp, i))
+				result.set(id);
+		return result.stream().toArray();
+	}
+
+	/**
+	 * @param a - sorted document IDs
+	 * @param b - sorted document IDs
+	 * @return sorted IDs in both a and b
+	 */
+	public static int[] and(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, n = 0;
+		while(i < a.length && j < b.length) {
+			if(a[i] < b[j]) i++;
+			else if(a[i] > b[j]) j++;
+			else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * @param a - sorted document IDs
+	 * @param b - sorted document IDs
+	 * @return sorted IDs in a or b
+	 */
+	public static int[] or(int[] a, int[] b) {
+		int[] result = new int[a.length + b.length];
+		int i = 0, j = 0, n = 0;
+		while(i < a.length || j < b.length) {
+			if(j == b.length || (i < a.length && a[i] < b[j]))
+				result[n++] = a[i++];
+			else if(i == a.length || b[j] < a[i])
+				result[n++] = b[j++];
+			else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	private int[] decode(String comp, int i) {
+		/* Absolute reads only, so lookups are thread-safe */
+		Cursor cursor = new Cursor(this.postings.get(comp),
+				this.offsets.get(comp)[i]);
+		int[] ids = new int[this.dfs.get(comp)[i]];
+		int doc = 0;
+		for(int k = 0; k < ids.length; k++) {
+			doc += (int) cursor.readVarint();
+			ids[k] = doc;
+		}
+		return ids;
+	}
+
+	/**
+	 * Build the index from extraction output. Document IDs follow the sorted
+	 * file names of the output directories.
+	 * @param baseDir - base directory that contains the 6 output directories
+	 * @param indexDir - output directory of the index
+	 */
+	public static void build(String baseDir, String indexDir) {
+		new File(indexDir).mkdirs();
+		String[] fileList = new File(baseDir + "/" + COMPONENTS[0]).list();
+		Arrays.sort(fileList);
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(indexDir + "/" + DOCS),
+					StandardCharsets.UTF_8.toString()));
+			for(String name : fileList)
+				writer.println(name);
+			writer.close();
+			for(String comp : COMPONENTS)
+				buildComponent(baseDir + "/" + comp, fileList, indexDir + "/" + comp +
+						".idx");
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static void buildComponent(String inDir, String[] fileList,
+			String path) throws IOException {
+		/* Postings of a term: [size, id, id, ...] with growing capacity */
+		HashMap<String, int[]> map = new HashMap<>();
+		for(int doc = 0; doc < fileList.length; doc++) {
+			try {
+				Scanner sc = new Scanner(new FileInputStream(inDir + "/" +
+						fileList[doc]), StandardCharsets.UTF_8.toString());
+				while(sc.hasNext()) {
+					String term = sc.next();
+					int[] list = map.get(term);
+					if(list == null) {
+						list = new int[4];
+						map.put(term, list);
+					}
+					if(list[0] > 0 && list[list[0]] == doc) continue; //Seen in doc
+					if(list[0] + 1 == list.length) {
+						list = Arrays.copyOf(list, list.length * 2);
+						map.put(term, list);
+					}
+					list[++list[0]] = doc;
+				}
+				sc.close();
+			} catch (FileNotFoundException e) {
+				e.printStackTrace();
+			}
+		}
+
+		List<String> sorted = new ArrayList<>(map.keySet());
+		Collections.sort(sorted);
+		long[] offsets = new long[sorted.size()];
+		try(CountingOutputStream out = new CountingOutputStream(new
+				BufferedOutputStream(new FileOutputStream(path)))) {
+			for(int i = 0; i < sorted.size(); i++) {
+				offsets[i] = out.count;
+				int[] list = map.get(sorted.get(i));
+				int prev = 0;
+				for(int k = 1; k <= list[0]; k++) {
+					writeVarint(out, list[k] - prev);
+					prev = list[k];
+				}
+			}
+			long dictOffset = out.count;
+			long prevOffset = 0;
+			for(int i = 0; i < sorted.size(); i++) {
+				byte[] bytes = sorted.get(i).getBytes(StandardCharsets.UTF_8);
+				writeVarint(out, bytes.length);
+				out.write(bytes);
+				writeVarint(out, map.get(sorted.get(i))[0]);
+				writeVarint(out, offsets[i] - prevOffset);
+				prevOffset = offsets[i];
+			}
+			ByteBuffer footer = ByteBuffer.allocate(12);
+			footer.putLong(dictOffset).putInt(sorted.size());
+			out.write(footer.array());
+		}
+	}
+
+	private static void writeVarint(OutputStream out, long value) throws
+	IOException {
+		while((value & ~0x7fL) != 0) {
+			out.write((int) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	/* A read position over a file mapped in chunks */
+	private static class Cursor {
+		private MappedByteBuffer[] chunks;
+		long pos;
+
+		Cursor(MappedByteBuffer[] chunks, long pos) {
+			this.chunks = chunks;
+			this.pos = pos;
+		}
+
+		byte get() {
+			byte b = this.chunks[(int) (this.pos >>> CHUNK_BITS)].get((int)
+					(this.pos & ((1L << CHUNK_BITS) - 1)));
+			this.pos++;
+			return b;
+		}
+
+		long readVarint() {
+			long value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = this.get();
+				value |= (long) (b & 0x7f) << shift;
+				shift += 7;
+			} while((b & 0x80) != 0);
+			return value;
+		}
+
+		/* Big-endian, as written by ByteBuffer */
+		long readLong(int bytes) {
+			long value = 0;
+			for(int i = 0; i < bytes; i++)
+				value = (value << 8) | (this.get() & 0xff);
+			return value;
+		}
+
+		long readLong() {
+			return this.readLong(8);
+		}
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+		private OutputStream out;
+		long count;
+
+		CountingOutputStream(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.count += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.close();
+		}
+	}
+
+	/**
+	 * Usage: "build baseDir indexDir" or "query indexDir expression", where
+	 * an expression is a list of COMP:term joined by AND or OR and evaluated
+	 * from left to right, e.g. "SV:court-rule AND VO:pay-fine". A term ending
+	 * with "*" is a prefix query.
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args[0].equals("build")) {
+			ComponentIndex.build(args[1], args[2]);
+			return;
+		}
+		ComponentIndex index = new ComponentIndex(args[1]);
+		int[] result = null;
+		String op = "OR";
+		for(int i = 2; i < args.length; i++) {
+			if(args[i].equals("AND") || args[i].equals("OR")) {
+				op = args[i];
+				continue;
+			}
+			int colon = args[i].indexOf(':');
+			String comp = args[i].substring(0, colon);
+			String term = args[i].substring(colon + 1);
+			int[] ids = term.endsWith("*") ? index.prefix(comp, term.substring(0,
+					term.length() - 1)) : index.term(comp, term);
+			if(result == null) result = ids;
+			else result = op.equals("AND") ? and(result, ids) : or(result, ids);
+		}
+		if(result == null) return;
+		for(int id : result)
+			System.out.println(index.docName(id));
+	}
+}
@@ -6,8 +6,15 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -16,15 +23,26 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import edu.stanford.nlp.io.IOUtils;
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.ling.CoreAnnotations.SentencesAnnotation;
+import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.CoNLLOutputter;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import edu.stanford.nlp.semgraph.SemanticGraphEdge;
@@ -32,6 +50,9 @@ import edu.stanford.nlp.trees.GrammaticalRelation;
 import edu.stanford.nlp.trees.international.pennchinese.UniversalChineseGrammaticalRelations;
 import edu.stanford.nlp.semgraph.SemanticGraphCoreAnnotations.EnhancedDependenciesAnnotation;
 import edu.stanford.nlp.util.CoreMap;
+import profiling.DocumentEvent;
+import profiling.ExtractionEvent;
+import profiling.ParseEvent;
 
 /**
  * @author Haoran Sun
@@ -42,7 +63,28 @@ import edu.stanford.nlp.util.CoreMap;
  * verb-object pairs, and subject-object pairs.
  */
 public class DependencyGenerator {
+	static final int NUM_COMPONENTS = 6;
+	static final String BACKEND = "stanford";
+	static final int IN_FLIGHT_PER_THREAD = 4;
+	/* Sentence boundaries of ssplit in "chinese.properties" except ".", which
+	 * ssplit only matches as a whole token but would split amounts like "3.5"
+	 * here */
+	static final String SENTENCE_BOUNDARY = "(?<=[\u3002\uff1b\uff01\uff1f!?])";
+	
 	private StanfordCoreNLP corenlp;
+	private Properties props;
+	private SentenceCache cache;
+	private ExecutorService pool;
+	/* Pipelines of the POS pre-filter, which parses one sentence at a time */
+	private StanfordCoreNLP tagger;
+	private StanfordCoreNLP parser;
+	private boolean posFilter;
+	private AtomicLong sentencesSeen = new AtomicLong();
+	private AtomicLong sentencesSkipped = new AtomicLong();
+	private AtomicLong tokensParsed = new AtomicLong();
+	private AtomicLong tokensSkipped = new AtomicLong();
+	private AtomicLong parseNanos = new AtomicLong();
+	private AtomicInteger failures = new AtomicInteger();
 	
 	/**
 	 * Default constructor. Initialize Stanford parser using settings in
@@ -55,9 +97,168 @@ public class DependencyGenerator {
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		this.props = props;
 		this.corenlp = new StanfordCoreNLP(props);
 	}
 	
+	/**
+	 * Run segmentation and POS tagging first, and only parse sentences that
+	 * have both a nominal and a verbal tag; other sentences (headers, case
+	 * numbers, amounts, lists) can not yield any output.
+	 * @param enabled - whether to filter sentences before parsing
+	 */
+	public void setPosFilter(boolean enabled) {
+		this.posFilter = enabled;
+		if(!enabled || this.tagger != null) return;
+		/* Annotators before "parse" tag the document, the rest run per sentence */
+		StringBuilder before = new StringBuilder();
+		StringBuilder after = new StringBuilder();
+		for(String annotator : this.props.getProperty("annotators").split(",")) {
+			annotator = annotator.trim();
+			if(annotator.equals("parse") || after.length() > 0)
+				after.append(after.length() > 0 ? ", " : "").append(annotator);
+			else
+				before.append(before.length() > 0 ? ", " : "").append(annotator);
+		}
+		Properties tagProps = new Properties();
+		tagProps.putAll(this.props);
+		tagProps.setProperty("annotators", before.toString());
+		this.tagger = new StanfordCoreNLP(tagProps);
+		Properties parseProps = new Properties();
+		parseProps.putAll(this.props);
+		parseProps.setProperty("annotators", after.toString());
+		this.parser = new StanfordCoreNLP(parseProps, false);
+	}
+	
+	/**
+	 * @return statistics of the POS pre-filter, or null if it is disabled
+	 */
+	public String posFilterStats() {
+		if(!this.posFilter) return null;
+		long parsed = this.tokensParsed.get();
+		double nanosPerToken = parsed == 0 ? 0 : (double) this.parseNanos.get() /
+				parsed;
+		return String.format("POS filter: skipped %d of %d sentences, parse time "
+				+ "%.1f s, estimated saving %.1f s", this.sentencesSkipped.get(),
+				this.sentencesSeen.get(), this.parseNanos.get() / 1e9,
+				this.tokensSkipped.get() * nanosPerToken / 1e9);
+	}
+	
+	private void annotate(Annotation document) {
+		if(!this.posFilter) {
+			ParseEvent event = new ParseEvent();
+			event.begin();
+			this.corenlp.annotate(document);
+			if(event.shouldCommit()) {
+				List<CoreMap> sentences = document.get(SentencesAnnotation.class);
+				event.sentences = sentences.size();
+				for(CoreMap sentence : sentences)
+					event.tokens += sentence.get(CoreAnnotations.TokensAnnotation.class)
+					.size();
+				event.backend = BACKEND;
+				event.commit();
+			}
+			return;
+		}
+		this.tagger.annotate(document);
+		List<CoreMap> kept = new ArrayList<>();
+		for(CoreMap sentence : document.get(SentencesAnnotation.class)) {
+			List<CoreLabel> tokens = sentence.get(CoreAnnotations.
+					TokensAnnotation.class);
+			this.sentencesSeen.incrementAndGet();
+			if(this.mayHaveOutput(tokens))
+				kept.add(sentence);
+			else {
+				this.sentencesSkipped.incrementAndGet();
+				this.tokensSkipped.addAndGet(tokens.size());
+			}
+		}
+		document.set(SentencesAnnotation.class, kept);
+		long start = System.nanoTime();
+		for(CoreMap sentence : kept)
+			this.parse(sentence);
+		this.parseNanos.addAndGet(System.nanoTime() - start);
+		for(CoreMap sentence : kept)
+			this.tokensParsed.addAndGet(sentence.get(CoreAnnotations.
+					TokensAnnotation.class).size());
+	}
+	
+	/* Parse trees and dependencies are set on the sentence itself */
+	private void parse(CoreMap sentence) {
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		List<CoreLabel> tokens = sentence.get(CoreAnnotations.TokensAnnotation
+				.class);
+		Annotation single = new Annotation(sentence.get(CoreAnnotations.
+				TextAnnotation.class));
+		single.set(CoreAnnotations.TokensAnnotation.class, tokens);
+		single.set(SentencesAnnotation.class, Collections.singletonList(sentence));
+		this.parser.annotate(single);
+		if(event.shouldCommit()) {
+			event.sentences = 1;
+			event.tokens = tokens.size();
+			event.backend = BACKEND;
+			event.commit();
+		}
+	}
+	
+	/* Needs a noun or pronoun and a verb, copula, or existential */
+	private boolean mayHaveOutput(List<CoreLabel> tokens) {
+		boolean nominal = false;
+		boolean verbal = false;
+		for(CoreLabel token : tokens) {
+			String tag = token.tag();
+			if(tag == null) continue;
+			if(tag.equals("NN") || tag.equals("NR") || tag.equals("NT") ||
+					tag.equals("PN"))
+				nominal = true;
+			else if(tag.equals("VV") || tag.equals("VC") || tag.equals("VE") ||
+					tag.equals("VA"))
+				verbal = true;
+			if(nominal && verbal) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Parse documents sentence by sentence and reuse results of sentences seen
+	 * before.
+	 * @param cache - sentence cache, or null to disable it
+	 */
+	public void setCache(SentenceCache cache) {
+		this.cache = cache;
+	}
+	
+	/**
+	 * Split documents into sentences and parse them concurrently, so a single
+	 * huge document can use every core. Output keeps the original sentence
+	 * order.
+	 * @param pool - worker pool owned by the caller, or null to parse
+	 * sequentially
+	 */
+	public void setSentencePool(ExecutorService pool) {
+		this.pool = pool;
+	}
+	
+	/**
+	 * @return pool used to parse sentences concurrently, or null
+	 */
+	public ExecutorService getSentencePool() {
+		return this.pool;
+	}
+	
+	/**
+	 * @return number of documents whose input could not be read or whose
+	 * output could not be fully written
+	 */
+	public int getFailures() {
+		return this.failures.get();
+	}
+	
+	private boolean bySentence(ExecutorService pool) {
+		return this.cache != null || pool != null;
+	}
+	
 	/**
 	 * Generate phrases and dependencies using Stanford parser.
 	 * @param file - input file to process
@@ -66,9 +267,31 @@ public class DependencyGenerator {
 	 */
 	public void generate(File file, List<GrammaticalRelation> criteria, String[]
 			outputDirs) {
+		this.generate(file, criteria, outputDirs, this.pool);
+	}
+	
+	/**
+	 * Generate phrases and dependencies using Stanford parser.
+	 * @param file - input file to process
+	 * @param criteria - phrase extraction criteria
+	 * @param outputDirs - a list of output directory names
+	 * @param sentencePool - pool to parse sentences of this document
+	 * concurrently, or null
+	 */
+	public void generate(File file, List<GrammaticalRelation> criteria, String[]
+			outputDirs, ExecutorService sentencePool) {
+		DocumentEvent event = new DocumentEvent();
+		event.begin();
 		String text = this.preporcess(file.getPath());
-		Annotation document = new Annotation(text);
-		this.corenlp.annotate(document);
+		if(text == null) {
+			this.failures.incrementAndGet();
+			return;
+		}
+		Annotation document = null;
+		if(!this.bySentence(sentencePool)) {
+			document = new Annotation(text);
+			this.annotate(document);
+		}
 		
 		OutputStreamWriter[] writers = new OutputStreamWriter[outputDirs.length];
 		for(int i = 0; i < outputDirs.length; i++)
@@ -78,23 +301,180 @@ public class DependencyGenerator {
 						StandardCharsets.UTF_8);
 			} catch (IOException e) {
 				e.printStackTrace();
+				this.failures.incrementAndGet();
+				for(int j = 0; j < i; j++)
+					try {
+						writers[j].close();
+					} catch (IOException e1) {
+						e1.printStackTrace();
+					}
 				return;
 			}
 		
 		System.out.println("Processing file: " + file.getName());
+		boolean ok = true;
+		if(this.bySentence(sentencePool))
+			ok = this.generateBySentence(text, criteria, writers, sentencePool);
+		else
+			this.extractDocument(document, criteria, writers);
+		
+		for(OutputStreamWriter writer: writers)
+			try {
+				writer.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+				ok = false;
+			}
+		if(!ok)
+			this.failures.incrementAndGet();
+		if(event.shouldCommit()) {
+			event.file = file.getName();
+			event.bytes = file.length();
+			event.backend = BACKEND;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Extract phrases and dependencies from text in memory.
+	 * @param text - input text
+	 * @param criteria - phrase extraction criteria
+	 * @param conll - stream for CoNLL output of the text, or null to skip it
+	 * @return S, V, O, SV, VO, and SO output of the text
+	 * @throws IOException if CoNLL output fails
+	 */
+	public String[] extract(String text, List<GrammaticalRelation> criteria,
+			OutputStream conll) throws IOException {
+		text = text.replaceAll("[\r\n ]", "");
+		StringWriter[] buffers = new StringWriter[NUM_COMPONENTS];
+		for(int i = 0; i < buffers.length; i++)
+			buffers[i] = new StringWriter();
+		if(this.bySentence(this.pool) && conll == null)
+			this.generateBySentence(text, criteria, buffers, this.pool);
+		else {
+			Annotation document = new Annotation(text);
+			this.annotate(document);
+			this.extractDocument(document, criteria, buffers);
+			if(conll != null)
+				CoNLLOutputter.conllPrint(document, conll);
+		}
+		String[] result = new String[NUM_COMPONENTS];
+		for(int i = 0; i < buffers.length; i++)
+			result[i] = buffers[i].toString();
+		return result;
+	}
+	
+	/**
+	 * Describe everything that changes extraction results, so cached results
+	 * of other settings are not reused.
+	 * @param criteria - phrase extraction criteria
+	 * @return settings of pipeline, POS filter and criteria
+	 */
+	public String configuration(List<GrammaticalRelation> criteria) {
+		return new TreeMap<>(this.props) + "|posfilter=" + this.posFilter +
+				"|criteria=" + criteria;
+	}
+	
+	/**
+	 * @return default phrase extraction criteria
+	 */
+	public static List<GrammaticalRelation> defaultCriteria() {
+		ArrayList<GrammaticalRelation> criteria = new ArrayList<>();
+		criteria.add(UniversalChineseGrammaticalRelations.NOUN_COMPOUND);
+		criteria.add(UniversalChineseGrammaticalRelations.ADJECTIVAL_MODIFIER);
+		criteria.add(UniversalChineseGrammaticalRelations.CLAUSAL_MODIFIER);
+		criteria.add(UniversalChineseGrammaticalRelations.ASSOCIATIVE_MODIFIER);
+		criteria.add(UniversalChineseGrammaticalRelations.ORDINAL_MODIFIER);
+		return criteria;
+	}
+	
+	private void extractDocument(Annotation document, List<GrammaticalRelation>
+	criteria, Writer[] writers) {
+		ExtractionEvent event = new ExtractionEvent();
+		event.begin();
 		List<CoreMap> sentences = document.get(SentencesAnnotation.class);
 		for(CoreMap sentence: sentences) {
 			SemanticGraph dependencies = sentence.get
 					(EnhancedDependenciesAnnotation.class);
 			this.extractDependencyPairs(dependencies, criteria, writers);
 		}
+		if(event.shouldCommit()) {
+			event.component = "all";
+			event.sentences = sentences.size();
+			event.backend = BACKEND;
+			event.commit();
+		}
+	}
+	
+	/* Returns false if a sentence could not be processed or written */
+	private boolean generateBySentence(String text, List<GrammaticalRelation>
+	criteria, Writer[] writers, ExecutorService pool) {
+		boolean ok = true;
+		ArrayList<String> keys = new ArrayList<>();
+		for(String sentence : text.split(SENTENCE_BOUNDARY)) {
+			String key = SentenceCache.normalize(sentence);
+			if(!key.isEmpty()) keys.add(key);
+		}
 		
-		for(OutputStreamWriter writer: writers)
+		/* Parse sentences on the pool, but write them in original order. Only a
+		 * few sentences per thread are queued, so results do not pile up */
+		int limit = IN_FLIGHT_PER_THREAD * (pool instanceof ThreadPoolExecutor ?
+				((ThreadPoolExecutor) pool).getMaximumPoolSize() :
+					Runtime.getRuntime().availableProcessors());
+		ArrayDeque<Future<String[]>> futures = new ArrayDeque<>();
+		int next = 0;
+		for(int j = 0; j < keys.size(); j++) {
+			String[] result = null;
+			if(pool == null)
+				result = this.processSentence(keys.get(j), criteria);
+			else
+				try {
+					for(; next < keys.size() && next - j < limit; next++) {
+						String key = keys.get(next);
+						futures.add(pool.submit(() -> this.processSentence(key,
+								criteria)));
+					}
+					result = futures.poll().get();
+				} catch (InterruptedException | ExecutionException e) {
+					e.printStackTrace();
+					ok = false;
+					continue;
+				}
 			try {
-				writer.close();
+				for(int i = 0; i < writers.length; i++)
+					writers[i].write(result[i]);
 			} catch (IOException e) {
 				e.printStackTrace();
+				ok = false;
 			}
+		}
+		return ok;
+	}
+	
+	private String[] processSentence(String key, List<GrammaticalRelation>
+	criteria) {
+		String[] result = this.cache == null ? null : this.cache.get(key);
+		if(result == null) {
+			result = this.extractSentence(key, criteria);
+			if(this.cache != null)
+				this.cache.put(key, result);
+		}
+		return result;
+	}
+	
+	/* Returns S, V, O, SV, VO, and SO output of a single sentence */
+	private String[] extractSentence(String sentence, List<GrammaticalRelation>
+	criteria) {
+		Annotation document = new Annotation(sentence);
+		this.annotate(document);
+		StringWriter[] buffers = new StringWriter[NUM_COMPONENTS];
+		for(int i = 0; i < buffers.length; i++)
+			buffers[i] = new StringWriter();
+		this.extractDocument(document, criteria, buffers);
+		String[] result = new String[NUM_COMPONENTS];
+		for(int i = 0; i < buffers.length; i++)
+			result[i] = buffers[i].toString();
+		return result;
 	}
 	
 	private String preporcess(String path) {
@@ -106,14 +486,16 @@ public class DependencyGenerator {
 				sb.append(line);
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
+			return null;
 		} catch (IOException e) {
 			e.printStackTrace();
+			return null;
 		}
 		return sb.toString().replace(" ", "");
 	}
 	
 	private void extractDependencyPairs(SemanticGraph graph,
-			List<GrammaticalRelation> criteria, OutputStreamWriter[] writers) {
+			List<GrammaticalRelation> criteria, Writer[] writers) {
 		/* Get all specified relationships from graph */
 		List<SemanticGraphEdge> list = graph.findAllRelns(
 				UniversalChineseGrammaticalRelations.NOMINAL_SUBJECT);
@@ -172,7 +554,7 @@ public class DependencyGenerator {
 	}
 	
 	private void writeOutput(LinkedList<String> subjects, LinkedList<String>
-	objPhrases, LinkedList<SemanticGraphEdge> verbObjects, OutputStreamWriter[]
+	objPhrases, LinkedList<SemanticGraphEdge> verbObjects, Writer[]
 			writers) {
 		HashSet<String> printed = new HashSet<>();
 		for(String subject: subjects) {
@@ -198,7 +580,7 @@ public class DependencyGenerator {
 	}
 	
 	private void writeOutputPass(LinkedList<String> subjects, LinkedList<String>
-	verbs, LinkedList<String> objects, OutputStreamWriter[] writers) {
+	verbs, LinkedList<String> objects, Writer[] writers) {
 		try {
 			for(String object : objects)
 				writers[2].write(object + " ");
@@ -252,7 +634,7 @@ public class DependencyGenerator {
 	
 	private void handleCopulaSentence(SemanticGraph graph, SemanticGraphEdge
 			currEdge, LinkedList<String> subjects, List<GrammaticalRelation>
-	criteria, OutputStreamWriter[] writers) throws IOException {
+	criteria, Writer[] writers) throws IOException {
 		IndexedWord cop = graph.getChildWithReln(currEdge.getGovernor(), 
 				UniversalChineseGrammaticalRelations.COPULA);
 		if(cop == null) return;
@@ -276,7 +658,7 @@ public class DependencyGenerator {
 	}
 	
 	private boolean handlePassiveSentence(SemanticGraph graph, 
-			List<GrammaticalRelation> criteria, OutputStreamWriter[] writers) {
+			List<GrammaticalRelation> criteria, Writer[] writers) {
 		boolean isPassive = false;
 		/* Passive subjects should be treated as objects in normal sentence */
 		List<SemanticGraphEdge> passSbjs = graph.findAllRelns
@@ -330,7 +712,7 @@ public class DependencyGenerator {
 	}
 	
 	private void handlePassiveCopSentence(SemanticGraph graph, 
-			List<GrammaticalRelation> criteria, OutputStreamWriter[] writers) {
+			List<GrammaticalRelation> criteria, Writer[] writers) {
 		List<SemanticGraphEdge> edges =
 				graph.findAllRelns(UniversalChineseGrammaticalRelations.COPULA);
 		for(SemanticGraphEdge edge : edges) {
@@ -450,14 +832,97 @@ public class DependencyGenerator {
 	public static void main(String[] args) {
 		File dir = new File(args[0]);
 		DependencyGenerator gen = new DependencyGenerator();
-		ArrayList<GrammaticalRelation> criteria = new ArrayList<>();
-		criteria.add(UniversalChineseGrammaticalRelations.NOUN_COMPOUND);
-		criteria.add(UniversalChineseGrammaticalRelations.ADJECTIVAL_MODIFIER);
-		criteria.add(UniversalChineseGrammaticalRelations.CLAUSAL_MODIFIER);
-		criteria.add(UniversalChineseGrammaticalRelations.ASSOCIATIVE_MODIFIER);
-		criteria.add(UniversalChineseGrammaticalRelations.ORDINAL_MODIFIER);
+		List<GrammaticalRelation> criteria = DependencyGenerator.defaultCriteria();
 		String[] outputDirs = {"S/", "V/", "O/", "SV/", "VO/", "SO/"};
-		for(final File file : dir.listFiles())
-			gen.generate(file, criteria, outputDirs);
+		File[] files = dir.listFiles();
+		
+		/* Options: -dedup threshold skip|reuse, -cache size, -spill directory,
+		 * -threads number, -workers number, -rate seconds, -index directory,
+		 * -posfilter */
+		Map<File, File> duplicates = new HashMap<>();
+		boolean reuse = false;
+		int cacheSize = 0;
+		File spillDir = null;
+		int threads = 1;
+		int workers = 1;
+		double rate = 0;
+		String indexDir = null;
+		for(int i = 1; i < args.length; i++) {
+			if(args[i].equals("-dedup")) {
+				NearDuplicateFilter filter = new NearDuplicateFilter(5, 128, 32,
+						Double.parseDouble(args[++i]));
+				duplicates = filter.findDuplicates(files);
+				filter.writeReport("duplicates.txt");
+				reuse = args[++i].equals("reuse");
+				System.out.println(duplicates.size() + " near-duplicate documents");
+			} else if(args[i].equals("-cache"))
+				cacheSize = Integer.parseInt(args[++i]);
+			else if(args[i].equals("-spill"))
+				spillDir = new File(args[++i]);
+			else if(args[i].equals("-threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if(args[i].equals("-workers"))
+				workers = Integer.parseInt(args[++i]);
+			else if(args[i].equals("-rate"))
+				rate = Double.parseDouble(args[++i]);
+			else if(args[i].equals("-index"))
+				indexDir = args[++i];
+			else if(args[i].equals("-posfilter"))
+				gen.setPosFilter(true);
+		}
+		ExecutorService pool = null;
+		if(threads > 1) {
+			pool = Executors.newFixedThreadPool(threads);
+			gen.setSentencePool(pool);
+		}
+		SentenceCache cache = null;
+		if(cacheSize > 0) {
+			cache = new SentenceCache(cacheSize, spillDir, gen.configuration(
+					criteria));
+			gen.setCache(cache);
+		}
+		
+		ArrayList<File> todo = new ArrayList<>();
+		for(final File file : files)
+			if(!duplicates.containsKey(file))
+				todo.add(file);
+		if(workers > 1) { //Largest documents first
+			BatchScheduler scheduler = new BatchScheduler(gen, workers);
+			scheduler.setRate(rate);
+			scheduler.run(todo.toArray(new File[todo.size()]), criteria, outputDirs);
+		}
+		else
+			for(final File file : todo)
+				gen.generate(file, criteria, outputDirs);
+		if(reuse)
+			DependencyGenerator.copyOutputs(duplicates, outputDirs);
+		if(cache != null)
+			System.out.println(cache);
+		String posStats = gen.posFilterStats();
+		if(posStats != null)
+			System.out.println(posStats);
+		if(pool != null)
+			pool.shutdown();
+		if(indexDir != null)
+			ComponentIndex.build(".", indexDir);
+	}
+	
+	/**
+	 * Reuse extraction output of representative documents for their
+	 * near-duplicates.
+	 * @param duplicates - a map from each duplicate to its representative
+	 * @param outputDirs - a list of output directory names
+	 */
+	public static void copyOutputs(Map<File, File> duplicates, String[]
+			outputDirs) {
+		for(Entry<File, File> entry : duplicates.entrySet())
+			for(String outputDir : outputDirs)
+				try {
+					Files.copy(Paths.get(outputDir + entry.getValue().getName()),
+							Paths.get(outputDir + entry.getKey().getName()),
+							StandardCopyOption.REPLACE_EXISTING);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+package dependencyExtraction;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.stanford.nlp.trees.GrammaticalRelation;
+
+/**
+ * A long-running extraction server that keeps the Stanford and HanLP
+ * pipelines loaded, so small batches do not pay for model loading. Documents
+ * are posted to a local HTTP endpoint and the six extracted components are
+ * returned, one per line, optionally followed by CoNLL output.
+ * <p>
+ * POST /extract?backend=stanford|hanlp&amp;option=CRF&amp;conll=true with the
+ * document as UTF-8 body; GET /status for queue and cache statistics.
+ * Requests beyond the worker and queue limits are rejected with 503.
+ * @since 10-19-2026
+ */
+public class ExtractionServer {
+	static final String[] COMPONENTS = {"S", "V", "O", "SV", "VO", "SO"};
+	/* Threads that accept requests and answer status, never parse */
+	static final int DISPATCHERS = 2;
+	/* A short sentence parsed once per extractor to load HanLP models */
+	static final String WARMUP = "\u4eca\u5929\u5929\u6c14\u5f88\u597d\u3002";
+
+	private DependencyGenerator gen;
+	private List<GrammaticalRelation> criteria;
+	/* HanLP extractors keep per-document state, so one per worker */
+	private BlockingQueue<HanLPDependencyExtractor> hanlp;
+	private ThreadPoolExecutor workers;
+	private ExecutorService dispatcher;
+	private HttpServer server;
+	private AtomicLong served;
+	private AtomicLong rejected;
+	private SentenceCache cache;
+
+	/**
+	 * Constructor. Loads the Stanford pipeline and one HanLP extractor per
+	 * worker with the default segmenter.
+	 * @param numWorkers - number of documents processed at the same time
+	 * @param queueSize - number of documents allowed to wait for a worker
+	 */
+	public ExtractionServer(int numWorkers, int queueSize) {
+		this.gen = new DependencyGenerator();
+		this.criteria = DependencyGenerator.defaultCriteria();
+		this.hanlp = new ArrayBlockingQueue<>(numWorkers);
+		for(int i = 0; i < numWorkers; i++) {
+			HanLPDependencyExtractor extr = new HanLPDependencyExtractor();
+			extr.buildDepFromText(WARMUP, "");
+			this.hanlp.add(extr);
+		}
+		/* Requests beyond the queue are rejected instead of piling up */
+		BlockingQueue<Runnable> queue = queueSize > 0 ? new
+				ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+		this.workers = new ThreadPoolExecutor(numWorkers, numWorkers, 0,
+				TimeUnit.MILLISECONDS, queue);
+		this.dispatcher = Executors.newFixedThreadPool(DISPATCHERS);
+		this.served = new AtomicLong();
+		this.rejected = new AtomicLong();
+	}
+
+	/**
+	 * Use a sentence cache for Stanford requests without CoNLL output.
+	 * @param cache - sentence cache
+	 */
+	public void setCache(SentenceCache cache) {
+		this.cache = cache;
+		this.gen.setCache(cache);
+	}
+
+	/**
+	 * Start listening on the loopback interface.
+	 * @param port - port number
+	 * @throws IOException if the port cannot be bound
+	 */
+	public void start(int port) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), port), 0);
+		this.server.createContext("/extract", this::handleExtract);
+		this.server.createContext("/status", this::handleStatus);
+		this.server.setExecutor(this.dispatcher);
+		this.server.start();
+		System.out.println("Extraction server listening on port " + port);
+	}
+
+	/**
+	 * Stop accepting requests and wait for running ones to finish.
+	 * @param delay - maximum seconds to wait
+	 */
+	public void stop(int delay) {
+		this.server.stop(delay);
+		this.workers.shutdown();
+		this.dispatcher.shutdown();
+	}
+
+	private void handleExtract(HttpExchange exchange) throws IOException {
+		if(!exchange.getRequestMethod().equals("POST")) {
+			this.respond(exchange, 405, "Use POST\n");
+			return;
+		}
+		try {
+			this.workers.execute(() -> this.extract(exchange));
+		} catch (RejectedExecutionException e) { //Backpressure
+			this.rejected.incrementAndGet();
+			exchange.getResponseHeaders().set("Retry-After", "1");
+			this.respond(exchange, 503, "Server busy\n");
+		}
+	}
+
+	/* Runs on a worker thread; the exchange is always closed */
+	private void extract(HttpExchange exchange) {
+		try {
+			HashMap<String, String> params;
+			try {
+				params = this.parseQuery(exchange.getRequestURI().getRawQuery());
+			} catch (IllegalArgumentException e) { //Malformed escapes
+				this.respond(exchange, 400, "Bad query: " + e.getMessage() + "\n");
+				return;
+			}
+			String text = new String(this.readAll(exchange.getRequestBody()),
+					StandardCharsets.UTF_8);
+			boolean conll = "true".equals(params.get("conll"));
+			String body = null;
+			try {
+				if("hanlp".equals(params.get("backend")))
+					body = this.extractHanLP(text, params.getOrDefault("option", ""),
+							conll);
+				else
+					body = this.extractStanford(text, conll);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+				this.respond(exchange, 500, e.toString() + "\n");
+				return;
+			}
+			this.served.incrementAndGet();
+			this.respond(exchange, 200, body);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void handleStatus(HttpExchange exchange) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("busy workers: ").append(this.workers.getActiveCount())
+		.append("\n");
+		sb.append("waiting: ").append(this.workers.getQueue().size()).append("\n");
+		sb.append("served: ").append(this.served.get()).append("\n");
+		sb.append("rejected: ").append(this.rejected.get()).append("\n");
+		if(this.cache != null)
+			sb.append(this.cache).append("\n");
+		this.respond(exchange, 200, sb.toString());
+	}
+
+	private String extractStanford(String text, boolean conll) {
+		StringBuilder sb = new StringBuilder();
+		ByteArrayOutputStream conllOut = conll ? new ByteArrayOutputStream() : null;
+		try {
+			String[] result = this.gen.extract(text, this.criteria, conllOut);
+			for(int i = 0; i < COMPONENTS.length; i++)
+				sb.append(COMPONENTS[i]).append("\t").append(result[i].trim())
+				.append("\n");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		if(conll)
+			sb.append("\n").append(new String(conllOut.toByteArray(),
+					StandardCharsets.UTF_8));
+		return sb.toString();
+	}
+
+	private String extractHanLP(String text, String option, boolean conll) {
+		/* Never waits, as there are as many extractors as workers */
+		HanLPDependencyExtractor extr = this.hanlp.poll();
+		try {
+			return this.extractHanLP(extr, text, option, conll);
+		} finally {
+			this.hanlp.add(extr);
+		}
+	}
+
+	private String extractHanLP(HanLPDependencyExtractor extr, String text,
+			String option, boolean conll) {
+		extr.buildDepFromText(text, option);
+		String[] types = {"S", "V", "O"};
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < COMPONENTS.length; i++) {
+			StringWriter buffer = new StringWriter();
+			PrintWriter writer = new PrintWriter(buffer);
+			if(i < types.length)
+				extr.getSingleComp(writer, types[i]);
+			else if(i == 3)
+				extr.getSV(writer);
+			else if(i == 4)
+				extr.getVO(writer);
+			else
+				extr.getSO(writer);
+			writer.flush();
+			sb.append(COMPONENTS[i]).append("\t").append(buffer.toString()
+					.replace("\n", "").trim()).append("\n");
+		}
+		if(conll) {
+			StringWriter buffer = new StringWriter();
+			PrintWriter writer = new PrintWriter(buffer);
+			extr.getCoNLL(writer);
+			writer.flush();
+			sb.append("\n").append(buffer.toString());
+		}
+		return sb.toString();
+	}
+
+	private HashMap<String, String> parseQuery(String query) throws
+	IOException {
+		HashMap<String, String> params = new HashMap<>();
+		if(query == null) return params;
+		for(String pair : query.split("&")) {
+			int eq = pair.indexOf('=');
+			if(eq < 0) continue;
+			params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"),
+					URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+		}
+		return params;
+	}
+
+	private byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int n;
+		while((n = in.read(buffer)) > 0)
+			out.write(buffer, 0, n);
+		return out.toByteArray();
+	}
+
+	private void respond(HttpExchange exchange, int status, String body) throws
+	IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type",
+				"text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try(OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Arguments: port, and optionally number of workers, queue size and
+	 * sentence cache size.
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = Integer.parseInt(args[0]);
+		int numWorkers = args.length > 1 ? Integer.parseInt(args[1]) :
+			Runtime.getRuntime().availableProcessors();
+		int queueSize = args.length > 2 ? Integer.parseInt(args[2]) : 4 * numWorkers;
+		ExtractionServer server = new ExtractionServer(numWorkers, queueSize);
+		if(args.length > 3)
+			server.setCache(new SentenceCache(Integer.parseInt(args[3])));
+		server.start(port);
+	}
+}
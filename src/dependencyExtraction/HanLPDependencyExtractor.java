@@ -21,6 +21,9 @@ import com.hankcs.hanlp.seg.NShort.NShortSegment;
 import com.hankcs.hanlp.tokenizer.IndexTokenizer;
 import com.hankcs.hanlp.tokenizer.NLPTokenizer;
 
+import profiling.ExtractionEvent;
+import profiling.ParseEvent;
+
 /**
  * A class that generates and output dependency pairs based on HanLP
  * dependency parsers. Refactored from previous project.
@@ -32,8 +35,10 @@ public class HanLPDependencyExtractor {
   static final String SV = "SBV";
   static final String VO = "VOB";
   static final String CORE = "HED";
+  static final String BACKEND = "hanlp";
 
   private LinkedList<CoNLLWord[]> doc;
+  private HashMap<String, IDependencyParser> parsers = new HashMap<>();
   
   /**
    * Generate dependency graphs from input file.
@@ -46,34 +51,87 @@ public class HanLPDependencyExtractor {
 		  try {
 			  Scanner sc = new Scanner(new FileInputStream(path), 
 					  StandardCharsets.UTF_8.toString());
-			  IDependencyParser parser = 
-					  new NeuralNetworkDependencyParser().enableDeprelTranslator(false);
+			  IDependencyParser parser = this.getParser(option);
 			  sc.useDelimiter("\\Z");
-			  if(option.equals("index"))
-			  	parser.setSegment(IndexTokenizer.SEGMENT);
-			  else if(option.equals("NShort"))
-			  	parser.setSegment(new NShortSegment());
-			  else if(option.equals("CRF"))
-			  	parser.setSegment(new CRFSegment());
-			  else
-			  	parser.setSegment(NLPTokenizer.SEGMENT);
-			  while(sc.hasNext()) {
-				  String[] sentences = sc.next().split(PUNCT);
-				  LinkedList<CoNLLWord[]> doc = new LinkedList<>();
-				  this.doc = doc;
-				  /* Add dependency graph of each sentence*/
-				  for(int j = 0; j < sentences.length; j++) {
-				  	CoNLLSentence sentence = parser.parse(sentences[j].trim());
-					  CoNLLWord[] wordArray = sentence.getWordArray();
-					  doc.add(wordArray);
-				  }
-			  }
+			  while(sc.hasNext())
+				  this.doc = this.parseText(sc.next(), parser);
 			  sc.close();
 		  } catch (FileNotFoundException e) {
 			  e.printStackTrace();
 		  }
   }
   
+  /**
+   * Generate dependency graphs from text in memory.
+   * @param text - input text
+   * @param option - name of segmenter, see buildDep
+   */
+  public void buildDepFromText(String text, String option) {
+  	this.doc = this.parseText(text, this.getParser(option));
+  }
+  
+  /**
+   * Write dependency graphs of the last document in CoNLL format.
+   * @param writer - output writer
+   */
+  public void getCoNLL(PrintWriter writer) {
+  	for(CoNLLWord[] wordArray : this.doc) {
+  		for(CoNLLWord term : wordArray) {
+  			writer.write(term.ID + "\t" + term.LEMMA + "\t" + term.LEMMA + "\t" +
+  					term.CPOSTAG + "\t" + term.POSTAG + "\t_\t" +
+  					(term.HEAD == null ? 0 : term.HEAD.ID) + "\t" + term.DEPREL);
+  			writer.write("\n");
+  		}
+  		writer.write("\n");
+  	}
+  }
+  
+  /* Parsers are kept so models and segmenters are only set up once */
+  private IDependencyParser getParser(String option) {
+  	IDependencyParser parser = this.parsers.get(option);
+  	if(parser != null) return parser;
+  	parser = new NeuralNetworkDependencyParser().enableDeprelTranslator(false);
+  	if(option.equals("index"))
+  		parser.setSegment(IndexTokenizer.SEGMENT);
+  	else if(option.equals("NShort"))
+  		parser.setSegment(new NShortSegment());
+  	else if(option.equals("CRF"))
+  		parser.setSegment(new CRFSegment());
+  	else
+  		parser.setSegment(NLPTokenizer.SEGMENT);
+  	this.parsers.put(option, parser);
+  	return parser;
+  }
+  
+  /* Fields are only filled in when a recording is running */
+  private void commit(ExtractionEvent event, String component) {
+  	if(!event.shouldCommit()) return;
+  	event.component = component;
+  	event.sentences = this.doc.size();
+  	event.backend = BACKEND;
+  	event.commit();
+  }
+  
+  private LinkedList<CoNLLWord[]> parseText(String text, IDependencyParser
+  		parser) {
+  	String[] sentences = text.split(PUNCT);
+  	LinkedList<CoNLLWord[]> doc = new LinkedList<>();
+  	/* Add dependency graph of each sentence*/
+  	for(int j = 0; j < sentences.length; j++) {
+  		ParseEvent event = new ParseEvent();
+  		event.begin();
+  		CoNLLSentence sentence = parser.parse(sentences[j].trim());
+  		CoNLLWord[] wordArray = sentence.getWordArray();
+  		doc.add(wordArray);
+  		if(event.shouldCommit()) {
+  			event.tokens = wordArray.length;
+  			event.backend = BACKEND;
+  			event.commit();
+  		}
+  	}
+  	return doc;
+  }
+  
   /**
    * Read a single component of sentence, i.e. subject, verb, or object.
    * @param outDir - output directory
@@ -81,165 +139,210 @@ public class HanLPDependencyExtractor {
    * @param component - "S," "V," or "O"
    */
   public void getSingleComp(String outDir, String fileName, String component) {
-  	ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
   	try {
   		PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
   				FileOutputStream(outDir + "/" + fileName), 
   				StandardCharsets.UTF_8.toString()));
-  		while(docIt.hasNext()) {
-  			CoNLLWord[] wordArray = docIt.next();
-  			for(CoNLLWord term: wordArray) {
-  				switch(component) {
-  				case "S":
-  					if(term.DEPREL.equals(SV)) {
-  						writer.write(this.formPhrase(wordArray, term.ID - 1));
-  						writer.write(" ");
-  					}
-  					break;
-  				case "V":
-  					if(term.DEPREL.equals(SV)) {
-  						writer.write(term.HEAD.LEMMA);
-  						writer.write(" ");
-  					} else if(term.DEPREL.equals(VO)) {
-  						writer.write(term.HEAD.LEMMA);
-  						writer.write(" ");
-  					}
-  					break;
-  				case "O":
-  					if(term.DEPREL.equals(VO)) {
-  						writer.write(this.formPhrase(wordArray, term.ID - 1));
-  						writer.write(" ");
-  					}
-  					break;
-  				}
-  			}
-  			writer.write("\n");
-  		}
+  		this.getSingleComp(writer, component);
   		writer.close();
   	}catch (UnsupportedEncodingException | FileNotFoundException e) {
   		e.printStackTrace();
   	}
   }
   
+  /**
+   * Write a single component of sentence, i.e. subject, verb, or object.
+   * @param writer - output writer
+   * @param component - "S," "V," or "O"
+   */
+  public void getSingleComp(PrintWriter writer, String component) {
+  	ExtractionEvent event = new ExtractionEvent();
+  	event.begin();
+  	ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
+  	while(docIt.hasNext()) {
+  		CoNLLWord[] wordArray = docIt.next();
+  		for(CoNLLWord term: wordArray) {
+  			switch(component) {
+  			case "S":
+  				if(term.DEPREL.equals(SV)) {
+  					writer.write(this.formPhrase(wordArray, term.ID - 1));
+  					writer.write(" ");
+  				}
+  				break;
+  			case "V":
+  				if(term.DEPREL.equals(SV)) {
+  					writer.write(term.HEAD.LEMMA);
+  					writer.write(" ");
+  				} else if(term.DEPREL.equals(VO)) {
+  					writer.write(term.HEAD.LEMMA);
+  					writer.write(" ");
+  				}
+  				break;
+  			case "O":
+  				if(term.DEPREL.equals(VO)) {
+  					writer.write(this.formPhrase(wordArray, term.ID - 1));
+  					writer.write(" ");
+  				}
+  				break;
+  			}
+  		}
+  		writer.write("\n");
+  	}
+  	this.commit(event, component);
+  }
+  
   /**
    * Output subject-object pairs.
    * @param outDir - output directory
    * @param fileName - output filename
    */
   public void getSO(String outDir, String fileName) {
-	  ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
 	  try {
 	  	PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
 	  			FileOutputStream(outDir + "/" + fileName), 
 	  			StandardCharsets.UTF_8.toString()));
-	  	while(docIt.hasNext()) {
-	  		CoNLLWord[] wordArray = docIt.next();
-	  		HashMap<CoNLLWord, CoNLLWord> map = new HashMap<>();
-	  		for(CoNLLWord term: wordArray) {
-	  			if(term.DEPREL.equals(SV))
-	  				map.put(term.HEAD, term);
-	  		}
-
-	  		for(int k = wordArray.length - 1; k >= 0; k--) {
-	  			if(!wordArray[k].DEPREL.equals(VO)) continue;
-	  			if(wordArray[k].HEAD == null) continue;
-
-	  			CoNLLWord subject = this.findSbj(wordArray[k].HEAD,
-	  					map);
-	  			if(subject == null) continue;
-	  			writer.write(this.formPhrase(wordArray, subject.ID - 1));
-	  			writer.write("-");
-	  			writer.write(this.formPhrase(wordArray, k));
-	  			writer.write(" ");
-	  		}
-	  	}
-	  	writer.write("\n");
+	  	this.getSO(writer);
 	  	writer.close();
 	  } catch (UnsupportedEncodingException | FileNotFoundException e) {
 	  	e.printStackTrace();
 	  }
   }
   
+  /**
+   * Write subject-object pairs.
+   * @param writer - output writer
+   */
+  public void getSO(PrintWriter writer) {
+  	ExtractionEvent event = new ExtractionEvent();
+  	event.begin();
+	  ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
+  	while(docIt.hasNext()) {
+  		CoNLLWord[] wordArray = docIt.next();
+  		HashMap<CoNLLWord, CoNLLWord> map = new HashMap<>();
+  		for(CoNLLWord term: wordArray) {
+  			if(term.DEPREL.equals(SV))
+  				map.put(term.HEAD, term);
+  		}
+
+  		for(int k = wordArray.length - 1; k >= 0; k--) {
+  			if(!wordArray[k].DEPREL.equals(VO)) continue;
+  			if(wordArray[k].HEAD == null) continue;
+
+  			CoNLLWord subject = this.findSbj(wordArray[k].HEAD,
+  					map);
+  			if(subject == null) continue;
+  			writer.write(this.formPhrase(wordArray, subject.ID - 1));
+  			writer.write("-");
+  			writer.write(this.formPhrase(wordArray, k));
+  			writer.write(" ");
+  		}
+  	}
+  	writer.write("\n");
+  	this.commit(event, "SO");
+  }
+  
   /**
    * Output verb-object pairs.
    * @param outDir - output directory
    * @param fileName - output filename
    */
   public void getVO(String outDir, String fileName) {
-  	ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
   	try {
   		PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
   				FileOutputStream(outDir + "/" + fileName), 
   				StandardCharsets.UTF_8.toString()));
-  		while(docIt.hasNext()) {
-  			CoNLLWord[] wordArray = docIt.next();
-  			HashMap<CoNLLWord, CoNLLWord> map = new HashMap<>();
-  			for(CoNLLWord term: wordArray) {
-  				if(term.DEPREL.equals(SV))
-  					map.put(term.HEAD, term);
-  			}
-
-  			for(int k = wordArray.length - 1; k >= 0; k--) {
-  				if(!wordArray[k].DEPREL.equals(VO)) continue;
-  				if(wordArray[k].HEAD == null || 
-  						(!wordArray[k].HEAD.CPOSTAG.startsWith("v")))
-  					continue;
-
-  				CoNLLWord subject = this.findSbj(wordArray[k].HEAD,
-  						map);
-  				if(subject == null) continue;
-  				writer.write(wordArray[k].HEAD.LEMMA);
-  				writer.write("-");
-  				writer.write(this.formPhrase(wordArray, k));
-  				writer.write(" ");
-  			}
-  		}
-  		writer.write("\n");
+  		this.getVO(writer);
   		writer.close();
   	} catch (UnsupportedEncodingException | FileNotFoundException e) {
   		e.printStackTrace();
   	}
   }
   
+  /**
+   * Write verb-object pairs.
+   * @param writer - output writer
+   */
+  public void getVO(PrintWriter writer) {
+  	ExtractionEvent event = new ExtractionEvent();
+  	event.begin();
+  	ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
+  	while(docIt.hasNext()) {
+  		CoNLLWord[] wordArray = docIt.next();
+  		HashMap<CoNLLWord, CoNLLWord> map = new HashMap<>();
+  		for(CoNLLWord term: wordArray) {
+  			if(term.DEPREL.equals(SV))
+  				map.put(term.HEAD, term);
+  		}
+
+  		for(int k = wordArray.length - 1; k >= 0; k--) {
+  			if(!wordArray[k].DEPREL.equals(VO)) continue;
+  			if(wordArray[k].HEAD == null || 
+  					(!wordArray[k].HEAD.CPOSTAG.startsWith("v")))
+  				continue;
+
+  			CoNLLWord subject = this.findSbj(wordArray[k].HEAD,
+  					map);
+  			if(subject == null) continue;
+  			writer.write(wordArray[k].HEAD.LEMMA);
+  			writer.write("-");
+  			writer.write(this.formPhrase(wordArray, k));
+  			writer.write(" ");
+  		}
+  	}
+  	writer.write("\n");
+  	this.commit(event, "VO");
+  }
+  
   /**
    * Output subject-verb pairs.
    * @param outDir - output directory
    * @param fileName - output filename
    */
   public void getSV(String outDir, String fileName) {
-  	ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
   	try {
   		PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
   				FileOutputStream(outDir + "/" + fileName), 
   				StandardCharsets.UTF_8.toString()));
-  		while(docIt.hasNext()) {
-  			CoNLLWord[] wordArray = docIt.next();
-  			HashMap<CoNLLWord, CoNLLWord> map = new HashMap<>();
-  			for(CoNLLWord term: wordArray) {
-  				if(term.DEPREL.equals(SV))
-  					map.put(term.HEAD, term);
-  			}
-
-  			for(int k = wordArray.length - 1; k >= 0; k--) {
-  				if(!wordArray[k].CPOSTAG.startsWith("v")) continue;
-  				if(wordArray[k].HEAD == null) continue;
-
-  				CoNLLWord subject = this.findSbj(wordArray[k].HEAD,
-  						map);
-  				if(subject == null) continue;
-  				writer.write(this.formPhrase(wordArray, subject.ID - 1));
-  				writer.write("-");
-  				writer.write(wordArray[k].LEMMA);
-  				writer.write(" ");
-  			}
-  		}
-  		writer.write("\n");
+  		this.getSV(writer);
   		writer.close();
   	} catch (UnsupportedEncodingException | FileNotFoundException e) {
   		e.printStackTrace();
   	}
   }
   
+  /**
+   * Write subject-verb pairs.
+   * @param writer - output writer
+   */
+  public void getSV(PrintWriter writer) {
+  	ExtractionEvent event = new ExtractionEvent();
+  	event.begin();
+  	ListIterator<CoNLLWord[]> docIt = this.doc.listIterator();
+  	while(docIt.hasNext()) {
+  		CoNLLWord[] wordArray = docIt.next();
+  		HashMap<CoNLLWord, CoNLLWord> map = new HashMap<>();
+  		for(CoNLLWord term: wordArray) {
+  			if(term.DEPREL.equals(SV))
+  				map.put(term.HEAD, term);
+  		}
+
+  		for(int k = wordArray.length - 1; k >= 0; k--) {
+  			if(!wordArray[k].CPOSTAG.startsWith("v")) continue;
+  			if(wordArray[k].HEAD == null) continue;
+
+  			CoNLLWord subject = this.findSbj(wordArray[k].HEAD,
+  					map);
+  			if(subject == null) continue;
+  			writer.write(this.formPhrase(wordArray, subject.ID - 1));
+  			writer.write("-");
+  			writer.write(wordArray[k].LEMMA);
+  			writer.write(" ");
+  		}
+  	}
+  	writer.write("\n");
+  	this.commit(event, "SV");
+  }
+  
   public boolean isPunc(String str) {
 	  if(str.equals("") || str.equals("") || str.equals("") ||
 			  str.equals("") || str.equals("") || str.equals("") ||
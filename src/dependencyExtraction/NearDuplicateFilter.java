@@ -0,0 +1,181 @@
+package dependencyExtraction;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import utils.Hashing;
+
+/**
+ * A pre-parse filter that finds near-duplicate documents using MinHash
+ * signatures over character n-grams and LSH banding, so that templated or
+ * re-filed judgments are parsed only once. A document joins the cluster of
+ * the most similar earlier representative whose estimated similarity is at
+ * least the threshold; similarity is not chained through other duplicates.
+ * @since 10-19-2026
+ */
+public class NearDuplicateFilter {
+	private int ngram;
+	private int numHashes;
+	private int bands;
+	private double threshold;
+	private LinkedHashMap<File, List<File>> clusters;
+	private HashMap<File, Double> similarity;
+
+	/**
+	 * Default constructor. Use 5-grams, 128 hash functions in 32 bands and a
+	 * Jaccard similarity threshold of 0.9.
+	 */
+	public NearDuplicateFilter() {
+		this(5, 128, 32, 0.9);
+	}
+
+	/**
+	 * Constructor.
+	 * @param ngram - length of character n-grams
+	 * @param numHashes - length of MinHash signatures
+	 * @param bands - number of LSH bands, must divide numHashes
+	 * @param threshold - minimum estimated Jaccard similarity of duplicates
+	 */
+	public NearDuplicateFilter(int ngram, int numHashes, int bands,
+			double threshold) {
+		if(numHashes % bands != 0)
+			throw new IllegalArgumentException("bands must divide numHashes");
+		this.ngram = ngram;
+		this.numHashes = numHashes;
+		this.bands = bands;
+		this.threshold = threshold;
+		this.clusters = new LinkedHashMap<>();
+		this.similarity = new HashMap<>();
+	}
+
+	/**
+	 * Find near-duplicate documents. Files are visited in name order, and a
+	 * file that matches no earlier representative becomes one.
+	 * @param files - input documents
+	 * @return a map from each duplicate to its representative
+	 */
+	public Map<File, File> findDuplicates(File[] files) {
+		File[] sorted = files.clone();
+		Arrays.sort(sorted);
+		long[][] signatures = new long[sorted.length][];
+		for(int i = 0; i < sorted.length; i++)
+			signatures[i] = this.signature(this.read(sorted[i]));
+
+		int rows = this.numHashes / this.bands;
+		/* Representatives sharing a band bucket with a document are candidates */
+		ArrayList<HashMap<Long, List<Integer>>> buckets = new ArrayList<>();
+		for(int b = 0; b < this.bands; b++)
+			buckets.add(new HashMap<>());
+		int[] rep = new int[sorted.length];
+		double[] sim = new double[sorted.length];
+		for(int i = 0; i < sorted.length; i++) {
+			rep[i] = i;
+			long[] keys = new long[this.bands];
+			HashSet<Integer> compared = new HashSet<>();
+			for(int b = 0; b < this.bands; b++) {
+				keys[b] = b;
+				for(int r = b * rows; r < (b + 1) * rows; r++)
+					keys[b] = Hashing.mix64(keys[b] * 31 + signatures[i][r]);
+				List<Integer> members = buckets.get(b).get(keys[b]);
+				if(members == null) continue;
+				for(int j : members) {
+					if(!compared.add(j)) continue;
+					double estimate = this.estimate(signatures[j], signatures[i]);
+					if(estimate >= this.threshold && estimate > sim[i]) {
+						rep[i] = j;
+						sim[i] = estimate;
+					}
+				}
+			}
+			if(rep[i] != i) continue;
+			for(int b = 0; b < this.bands; b++)
+				buckets.get(b).computeIfAbsent(keys[b], k -> new ArrayList<>()).add(i);
+		}
+
+		this.clusters.clear();
+		this.similarity.clear();
+		LinkedHashMap<File, File> duplicates = new LinkedHashMap<>();
+		for(int i = 0; i < sorted.length; i++) {
+			if(rep[i] == i) continue;
+			duplicates.put(sorted[i], sorted[rep[i]]);
+			this.similarity.put(sorted[i], sim[i]);
+			this.clusters.computeIfAbsent(sorted[rep[i]], k -> new ArrayList<>())
+			.add(sorted[i]);
+		}
+		return duplicates;
+	}
+
+	/**
+	 * Output duplicate clusters found by the last call of findDuplicates. Each
+	 * line starts with the representative, followed by its duplicates and
+	 * their estimated similarity.
+	 * @param path - path to report file
+	 */
+	public void writeReport(String path) {
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(path), StandardCharsets.UTF_8.toString()));
+			for(Entry<File, List<File>> cluster : this.clusters.entrySet()) {
+				writer.write(cluster.getKey().getName());
+				for(File dup : cluster.getValue())
+					writer.write("\t" + dup.getName() + ":" + String.format("%.3f",
+							this.similarity.get(dup)));
+				writer.println();
+			}
+			writer.close();
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private long[] signature(String text) {
+		long[] sig = new long[this.numHashes];
+		Arrays.fill(sig, Long.MAX_VALUE);
+		int n = Math.min(this.ngram, text.length());
+		for(int i = 0; i + n <= text.length(); i++) {
+			long h = Hashing.hash64(text, i, i + n, 0);
+			for(int j = 0; j < this.numHashes; j++) {
+				long hj = Hashing.rehash(h, j);
+				if(hj < sig[j]) sig[j] = hj;
+			}
+			if(n == 0) break; //Empty document
+		}
+		return sig;
+	}
+
+	private double estimate(long[] a, long[] b) {
+		int same = 0;
+		for(int i = 0; i < a.length; i++)
+			if(a[i] == b[i]) same++;
+		return (double) same / a.length;
+	}
+
+	private String read(File file) {
+		StringBuilder sb = new StringBuilder();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(new
+				FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line = null;
+			while((line = reader.readLine()) != null)
+				sb.append(line);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return sb.toString().replace(" ", "");
+	}
+}
@@ -0,0 +1,199 @@
+package dependencyExtraction;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import utils.Hashing;
+
+/**
+ * A size-bounded LRU cache of extraction results keyed by normalized
+ * sentence text, so boilerplate sentences shared by many judgments are
+ * parsed only once. Evicted entries can optionally be spilled to a
+ * directory and promoted back on the next lookup. Disk reads and writes are
+ * done outside the lock, so parsing threads do not wait on each other's I/O.
+ * @since 10-19-2026
+ */
+public class SentenceCache {
+	private LinkedHashMap<String, String[]> map;
+	private File spillDir;
+	/* Entries evicted under the lock, spilled by the thread that evicted them */
+	private List<Map.Entry<String, String[]>> evicted;
+	private long hits;
+	private long diskHits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Constructor of an in-memory only cache.
+	 * @param capacity - maximum number of sentences kept in memory
+	 */
+	public SentenceCache(int capacity) {
+		this(capacity, null, null);
+	}
+
+	/**
+	 * Constructor. Spilled entries outlive the run, so they are kept apart by
+	 * the configuration that produced them.
+	 * @param capacity - maximum number of sentences kept in memory
+	 * @param spillDir - directory for evicted entries, or null to drop them
+	 * @param config - description of everything that changes extraction
+	 * results, e.g. criteria, parser models and filters
+	 */
+	public SentenceCache(final int capacity, File spillDir, String config) {
+		if(spillDir != null) {
+			spillDir = new File(spillDir, Long.toHexString(Hashing.hash64(config,
+					0)));
+			spillDir.mkdirs();
+		}
+		this.spillDir = spillDir;
+		this.evicted = new ArrayList<>();
+		this.map = new LinkedHashMap<String, String[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+				if(this.size() <= capacity) return false;
+				SentenceCache.this.evictions++;
+				if(SentenceCache.this.spillDir != null)
+					SentenceCache.this.evicted.add(new
+							AbstractMap.SimpleImmutableEntry<>(eldest));
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Normalize a sentence so that trivially different copies share a key.
+	 * @param sentence - raw sentence text
+	 * @return normalized text
+	 */
+	public static String normalize(String sentence) {
+		return sentence.replaceAll("[\\s\\u3000]+", "").trim();
+	}
+
+	/**
+	 * Look up extraction results of a normalized sentence.
+	 * @param key - normalized sentence text
+	 * @return S, V, O, SV, VO, and SO output of the sentence, or null
+	 */
+	public String[] get(String key) {
+		synchronized(this) {
+			String[] value = this.map.get(key);
+			if(value != null) {
+				this.hits++;
+				return value;
+			}
+			if(this.spillDir == null) {
+				this.misses++;
+				return null;
+			}
+		}
+		String[] value = this.load(key);
+		List<Map.Entry<String, String[]>> toSpill;
+		synchronized(this) {
+			if(value == null) {
+				this.misses++;
+				return null;
+			}
+			this.diskHits++;
+			this.map.put(key, value);
+			toSpill = this.drainEvicted();
+		}
+		this.spill(toSpill);
+		return value;
+	}
+
+	/**
+	 * Store extraction results of a normalized sentence.
+	 * @param key - normalized sentence text
+	 * @param value - S, V, O, SV, VO, and SO output of the sentence
+	 */
+	public void put(String key, String[] value) {
+		List<Map.Entry<String, String[]>> toSpill;
+		synchronized(this) {
+			this.map.put(key, value);
+			toSpill = this.drainEvicted();
+		}
+		this.spill(toSpill);
+	}
+
+	/* Called with the lock held */
+	private List<Map.Entry<String, String[]>> drainEvicted() {
+		if(this.evicted.isEmpty()) return null;
+		List<Map.Entry<String, String[]>> drained = this.evicted;
+		this.evicted = new ArrayList<>();
+		return drained;
+	}
+
+	/**
+	 * @return fraction of lookups answered from memory or disk
+	 */
+	public synchronized double hitRate() {
+		long total = this.hits + this.diskHits + this.misses;
+		return total == 0 ? 0 : (double) (this.hits + this.diskHits) / total;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("Sentence cache: %d entries, %d hits, %d disk hits, "
+				+ "%d misses, %d evictions, hit rate %.2f%%", this.map.size(),
+				this.hits, this.diskHits, this.misses, this.evictions,
+				this.hitRate() * 100);
+	}
+
+	private File spillFile(String key) {
+		return new File(this.spillDir, Long.toHexString(Hashing.hash64(key, 0)));
+	}
+
+	/* Write to a temporary file first, so readers never see a partial entry */
+	private void spill(List<Map.Entry<String, String[]>> entries) {
+		if(entries == null) return;
+		for(Map.Entry<String, String[]> entry : entries) {
+			File file = this.spillFile(entry.getKey());
+			File tmp = new File(file.getPath() + "." + Thread.currentThread().getId());
+			try {
+				PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+						FileOutputStream(tmp), StandardCharsets.UTF_8.toString()));
+				writer.println(entry.getKey());
+				for(String component : entry.getValue())
+					writer.println(component);
+				writer.close();
+				if(!tmp.renameTo(file))
+					tmp.delete();
+			} catch (UnsupportedEncodingException | FileNotFoundException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private String[] load(String key) {
+		File file = this.spillFile(key);
+		if(!file.exists()) return null;
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(new
+				FileInputStream(file), StandardCharsets.UTF_8))) {
+			if(!key.equals(reader.readLine())) return null; //Hash collision
+			String[] value = new String[DependencyGenerator.NUM_COMPONENTS];
+			for(int i = 0; i < value.length; i++) {
+				value[i] = reader.readLine();
+				if(value[i] == null) return null; //Truncated file
+			}
+			return value;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the processing of one document.
+ * @since 10-19-2026
+ */
+@Name("toolkit.Document")
+@Label("Document")
+@Category({"Topic Model Toolkit", "Extraction"})
+@Description("Parsing and extraction of one document")
+public class DocumentEvent extends Event {
+	@Label("File")
+	public String file;
+
+	@Label("Size")
+	@DataAmount
+	public long bytes;
+
+	@Label("Backend")
+	public String backend;
+}
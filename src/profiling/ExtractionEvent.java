@@ -0,0 +1,26 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of extracting components from parsed sentences.
+ * @since 10-19-2026
+ */
+@Name("toolkit.Extraction")
+@Label("Extraction")
+@Category({"Topic Model Toolkit", "Extraction"})
+@Description("Extraction of S, V, O, SV, VO and SO from dependency graphs")
+public class ExtractionEvent extends Event {
+	@Label("Component")
+	public String component;
+
+	@Label("Sentences")
+	public int sentences;
+
+	@Label("Backend")
+	public String backend;
+}
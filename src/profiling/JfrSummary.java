@@ -0,0 +1,92 @@
+package profiling;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarize toolkit events of a JFR recording: the most expensive documents,
+ * and parse, extraction and matrix time by backend.
+ * <p>
+ * Record with e.g.
+ * java -XX:StartFlightRecording=filename=run.jfr DependencyGenerator courtDoc
+ * @since 10-19-2026
+ */
+public class JfrSummary {
+	private static class Document {
+		String file;
+		String backend;
+		long bytes;
+		Duration duration = Duration.ZERO;
+	}
+
+	/**
+	 * Arguments: path to .jfr file, and optionally number of documents to show.
+	 */
+	public static void main(String[] args) throws IOException {
+		int top = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		HashMap<String, Document> docs = new HashMap<>();
+		HashMap<String, Duration> totals = new HashMap<>();
+		HashMap<String, Long> counts = new HashMap<>();
+		long tokens = 0;
+
+		for(RecordedEvent event : RecordingFile.readAllEvents(Paths.get(args[0]))) {
+			String type = event.getEventType().getName();
+			if(!type.startsWith("toolkit.")) continue;
+			String key = type;
+			if(event.hasField("backend") && event.getString("backend") != null)
+				key += " (" + event.getString("backend") + ")";
+			totals.merge(key, event.getDuration(), Duration::plus);
+			counts.merge(key, 1L, Long::sum);
+			if(type.equals("toolkit.Parse"))
+				tokens += event.getInt("tokens");
+			if(!type.equals("toolkit.Document")) continue;
+			Document doc = docs.computeIfAbsent(event.getString("file"),
+					k -> new Document());
+			doc.file = event.getString("file");
+			doc.backend = event.getString("backend");
+			doc.bytes = event.getLong("bytes");
+			doc.duration = doc.duration.plus(event.getDuration());
+		}
+
+		System.out.println("Event totals:");
+		List<String> keys = new ArrayList<>(totals.keySet());
+		Collections.sort(keys);
+		for(String key : keys)
+			System.out.println(String.format("  %-40s %8d events %10.3f s", key,
+					counts.get(key), totals.get(key).toNanos() / 1e9));
+		System.out.println("  Tokens parsed: " + tokens);
+
+		List<Document> sorted = new ArrayList<>(docs.values());
+		Collections.sort(sorted, (a, b) -> b.duration.compareTo(a.duration));
+		System.out.println("Top " + Math.min(top, sorted.size()) +
+				" documents by time:");
+		for(int i = 0; i < top && i < sorted.size(); i++) {
+			Document doc = sorted.get(i);
+			System.out.println(String.format("  %-40s %-8s %10d bytes %10.3f s",
+					doc.file, doc.backend, doc.bytes, doc.duration.toNanos() / 1e9));
+		}
+
+		/* Documents whose time per byte stands out are worth a closer look */
+		HashMap<String, Double> rate = new HashMap<>();
+		for(Document doc : sorted)
+			if(doc.bytes > 0)
+				rate.put(doc.file, doc.duration.toNanos() / 1e3 / doc.bytes);
+		List<Entry<String, Double>> rates = new ArrayList<>(rate.entrySet());
+		Collections.sort(rates, (a, b) -> Double.compare(b.getValue(),
+				a.getValue()));
+		System.out.println("Top " + Math.min(top, rates.size()) +
+				" documents by time per byte:");
+		for(int i = 0; i < top && i < rates.size(); i++)
+			System.out.println(String.format("  %-40s %10.2f us/byte",
+					rates.get(i).getKey(), rates.get(i).getValue()));
+	}
+}
@@ -0,0 +1,23 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of writing an LDA-C matrix.
+ * @since 10-19-2026
+ */
+@Name("toolkit.MatrixFlush")
+@Label("Matrix Flush")
+@Category({"Topic Model Toolkit", "Matrix"})
+@Description("Output of one LDA-C matrix file")
+public class MatrixFlushEvent extends Event {
+	@Label("Matrix")
+	public String matrix;
+
+	@Label("Documents")
+	public int documents;
+}
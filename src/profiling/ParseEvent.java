@@ -0,0 +1,27 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of one parser call: a whole document on the default pipeline,
+ * a single sentence in sentence mode or with the POS pre-filter.
+ * @since 10-19-2026
+ */
+@Name("toolkit.Parse")
+@Label("Sentence Parse")
+@Category({"Topic Model Toolkit", "Extraction"})
+@Description("Dependency parse of one sentence or document")
+public class ParseEvent extends Event {
+	@Label("Sentences")
+	public int sentences;
+
+	@Label("Tokens")
+	public int tokens;
+
+	@Label("Backend")
+	public String backend;
+}
@@ -0,0 +1,197 @@
+package stmData;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A scheduler that runs many (combination, K, seed) stm fits concurrently as
+ * bounded Rscript subprocesses, replacing the sequential searchKTest.sh runs.
+ * Each fit is done by KFit.R, which reports held-out likelihood, semantic
+ * coherence and exclusivity; all fits are merged into one diagnostics table.
+ * @since 10-19-2026
+ */
+public class KSweepScheduler {
+	static final String HEADER = "combination,K,seed,heldout,coherence," +
+			"exclusivity,seconds";
+	static final long BASE_MEMORY_MB = 512;
+	static final long MATRIX_MEMORY_FACTOR = 20;
+
+	private File workDir;
+	private String script;
+	private int cores;
+	private long memoryBudgetMB;
+	private Semaphore memory;
+
+	/**
+	 * Constructor.
+	 * @param workDir - directory that contains matXXX.ldac and vocabXXX
+	 * @param script - path to KFit.R
+	 * @param cores - maximum number of concurrent fits
+	 * @param memoryBudgetMB - total memory (in MB) all running fits may use
+	 */
+	public KSweepScheduler(File workDir, String script, int cores,
+			long memoryBudgetMB) {
+		this.workDir = workDir;
+		this.script = new File(script).getAbsolutePath();
+		this.cores = cores;
+		this.memoryBudgetMB = memoryBudgetMB;
+		this.memory = new Semaphore((int) memoryBudgetMB, true);
+	}
+
+	/**
+	 * Run every (combination, K, seed) fit and write a combined table.
+	 * @param combinations - combination names, e.g. "S" or "VO"
+	 * @param ks - numbers of topics to try
+	 * @param seeds - random seeds for each K
+	 * @param output - name of the combined diagnostics table
+	 */
+	public void sweep(String[] combinations, int[] ks, int[] seeds,
+			String output) {
+		File tmpDir = new File(this.workDir, "kfit");
+		tmpDir.mkdir();
+		ExecutorService pool = Executors.newFixedThreadPool(this.cores);
+		List<Future<String>> results = new ArrayList<>();
+		for(String combi : combinations) {
+			/* Larger matrices need more memory in R */
+			long need = BASE_MEMORY_MB + MATRIX_MEMORY_FACTOR * new File(this.workDir,
+					"mat" + combi + ".ldac").length() / (1024 * 1024);
+			final long permits = Math.min(need, this.memoryBudgetMB);
+			for(int k : ks)
+				for(int seed : seeds) {
+					final File out = new File(tmpDir, combi + "_" + k + "_" + seed);
+					results.add(pool.submit(() -> this.fit(combi, k, seed, permits,
+							out)));
+				}
+		}
+		pool.shutdown();
+
+		List<String> rows = new ArrayList<>();
+		for(Future<String> result : results) {
+			try {
+				String row = result.get();
+				if(row != null) rows.add(row);
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+		Collections.sort(rows, KSweepScheduler::compareRows);
+
+		/* Output diagnostics */
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(new File(this.workDir, output)),
+					StandardCharsets.UTF_8.toString()));
+			writer.println(HEADER);
+			for(String row : rows)
+				writer.println(row);
+			writer.close();
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private String fit(String combi, int k, int seed, long permits, File out)
+			throws InterruptedException {
+		this.memory.acquire((int) permits);
+		try {
+			System.out.println("Fitting " + combi + " K=" + k + " seed=" + seed);
+			ProcessBuilder pb = new ProcessBuilder("Rscript", this.script, combi,
+					String.valueOf(k), String.valueOf(seed), out.getAbsolutePath());
+			pb.directory(this.workDir);
+			/* One core per fit, the pool controls parallelism */
+			pb.environment().put("OMP_NUM_THREADS", "1");
+			pb.environment().put("OPENBLAS_NUM_THREADS", "1");
+			pb.redirectErrorStream(true);
+			pb.redirectOutput(new File(out.getPath() + ".log"));
+			int status = pb.start().waitFor();
+			if(status != 0) {
+				System.err.println("Fit " + out.getName() + " exited with " + status);
+				return null;
+			}
+			return this.readResult(out);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			this.memory.release((int) permits);
+		}
+	}
+
+	private String readResult(File out) {
+		try(Scanner sc = new Scanner(new FileInputStream(out),
+				StandardCharsets.UTF_8.toString())) {
+			return sc.hasNextLine() ? sc.nextLine().trim() : null;
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/* Order by combination, then K and seed as numbers */
+	private static int compareRows(String a, String b) {
+		String[] x = a.split(",", 4);
+		String[] y = b.split(",", 4);
+		int c = x[0].compareTo(y[0]);
+		if(c == 0)
+			c = Integer.compare(Integer.parseInt(x[1]), Integer.parseInt(y[1]));
+		if(c == 0)
+			c = Integer.compare(Integer.parseInt(x[2]), Integer.parseInt(y[2]));
+		return c;
+	}
+
+	/* KFit.R next to the data, or under stmData of the working directory */
+	private static String findScript(File workDir) {
+		File script = new File(workDir, "KFit.R");
+		if(!script.exists())
+			script = new File("stmData", "KFit.R");
+		if(!script.exists())
+			throw new IllegalArgumentException("KFit.R not found in " + workDir +
+					" or stmData, pass its path as the last argument");
+		return script.getPath();
+	}
+
+	private static int[] parseList(String list) {
+		String[] parts = list.split(",");
+		int[] values = new int[parts.length];
+		for(int i = 0; i < parts.length; i++)
+			values[i] = Integer.parseInt(parts[i].trim());
+		return values;
+	}
+
+	/**
+	 * Arguments: working directory, comma separated K values, comma separated
+	 * seeds, and optionally number of cores, memory budget in MB and path to
+	 * KFit.R (by default looked up in the working directory, then stmData).
+	 */
+	public static void main(String[] args) {
+		String[] combinations = {"S", "V", "O", "SV", "VO", "SO"};
+		int cores = args.length > 3 ? Integer.parseInt(args[3]) :
+			Runtime.getRuntime().availableProcessors();
+		long memoryMB = args.length > 4 ? Long.parseLong(args[4]) :
+			((com.sun.management.OperatingSystemMXBean) ManagementFactory.
+					getOperatingSystemMXBean()).getTotalPhysicalMemorySize() /
+			(1024 * 1024);
+		File workDir = new File(args[0]);
+		String script = args.length > 5 ? args[5] : findScript(workDir);
+		KSweepScheduler scheduler = new KSweepScheduler(workDir, script, cores,
+				memoryMB);
+		scheduler.sweep(combinations, parseList(args[1]), parseList(args[2]),
+				"diagnostics.csv");
+	}
+}
@@ -9,28 +9,75 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import profiling.MatrixFlushEvent;
+import utils.Hashing;
+import utils.LongCounter;
+import utils.TableReader;
 
 
 public class LDACMatrix {
+	/* Candidates tracked per bucket for each name in its label */
+	static final int CANDIDATE_FACTOR = 4;
+	
 	private HashSet<String> vocab;
+	private Set<String> filter;
+	private int buckets;
+	private int namesPerBucket;
+	private String[][] names;
+	private long[][] nameCounts;
+	private long[][] nameErrors;
 	
 	public LDACMatrix() {
 		this.vocab = new HashSet<>();
 	}
 	
+	/**
+	 * Only keep the given terms in vocabulary and matrix.
+	 * @param filter - terms to keep, or null to keep all terms
+	 */
+	public void setFilter(Set<String> filter) {
+		this.filter = filter;
+	}
+	
+	/**
+	 * Map terms to a fixed number of buckets instead of keeping every distinct
+	 * term, so memory is bounded on huge vocabularies. For each bucket the
+	 * most frequent terms are kept to label it in the vocabulary file.
+	 * @param buckets - number of buckets, or 0 to keep all terms
+	 * @param namesPerBucket - number of terms kept to label each bucket
+	 */
+	public void setHashing(int buckets, int namesPerBucket) {
+		this.buckets = buckets;
+		this.namesPerBucket = namesPerBucket;
+	}
+	
 	public void populateVocab(String[]fileList,  String inDir,
 			String vocabName) {
+		  if(this.buckets > 0) {
+			  this.populateHashedVocab(fileList, inDir, vocabName);
+			  return;
+		  }
 		  for(int i = 0; i < fileList.length; i++) {
 			  try {
 				  Scanner sc = new Scanner(new FileInputStream(inDir + "/" + fileList[i]), 
 						  StandardCharsets.UTF_8.toString());
 				  while(sc.hasNext()) {
-					  vocab.add(sc.next());
+					  String term = sc.next();
+					  if(this.filter == null || this.filter.contains(term))
+						  vocab.add(term);
 				  }
 				  sc.close();
 			  } catch (FileNotFoundException e) {
@@ -55,6 +102,10 @@ public class LDACMatrix {
 	
 	public void getMatrix(String[]fileList,  String inDir, String vocabName,
 			String matName) {
+		if(this.buckets > 0) {
+			this.getHashedMatrix(fileList, inDir, matName);
+			return;
+		}
 		HashMap<String, Integer> map = new HashMap<>();
 		try {
 			Scanner vocSc = new Scanner(new FileInputStream(vocabName), 
@@ -76,6 +127,7 @@ public class LDACMatrix {
 				  list.add(locMap);
 				  while(sc.hasNext()) {
 					  String term = sc.next();
+					  if(this.filter != null && !this.filter.contains(term)) continue;
 					  if(locMap.containsKey(term))
 						  locMap.put(term, locMap.get(term).intValue() + 1);
 					  else
@@ -88,6 +140,8 @@ public class LDACMatrix {
 		  }
 		
 		/* Output dtm */
+		MatrixFlushEvent event = new MatrixFlushEvent();
+		event.begin();
 		  try {
 			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
 					  FileOutputStream(matName), 
@@ -110,18 +164,392 @@ public class LDACMatrix {
 		} catch (UnsupportedEncodingException | FileNotFoundException e) {
 			e.printStackTrace();
 		}
+		this.commit(event, matName, list.size());
+	}
+	
+	private int bucket(String term) {
+		return (int) Long.remainderUnsigned(Hashing.hash64(term, 0), this.buckets);
+	}
+	
+	private void populateHashedVocab(String[]fileList,  String inDir,
+			String vocabName) {
+		this.names = new String[this.buckets][];
+		this.nameCounts = new long[this.buckets][];
+		this.nameErrors = new long[this.buckets][];
+		for(int i = 0; i < fileList.length; i++) {
+			try {
+				Scanner sc = new Scanner(new FileInputStream(inDir + "/" + fileList[i]),
+						StandardCharsets.UTF_8.toString());
+				while(sc.hasNext()) {
+					String term = sc.next();
+					if(this.filter == null || this.filter.contains(term))
+						this.countName(this.bucket(term), term);
+				}
+				sc.close();
+			} catch (FileNotFoundException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		/* Output one line per bucket, labeled by its most frequent terms */
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(vocabName), StandardCharsets.UTF_8.toString()));
+			for(int b = 0; b < this.buckets; b++) {
+				writer.write(this.label(b));
+				writer.println();
+			}
+			writer.close();
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+		this.names = null;
+		this.nameCounts = null;
+		this.nameErrors = null;
+	}
+	
+	/* Space-saving counter: replace the least frequent name when full. The
+	 * new name inherits its count, which is kept as its maximum error. */
+	private void countName(int b, String term) {
+		if(this.namesPerBucket == 0) return;
+		if(this.names[b] == null) {
+			int candidates = this.namesPerBucket * CANDIDATE_FACTOR;
+			this.names[b] = new String[candidates];
+			this.nameCounts[b] = new long[candidates];
+			this.nameErrors[b] = new long[candidates];
+		}
+		String[] bucketNames = this.names[b];
+		long[] counts = this.nameCounts[b];
+		int min = 0;
+		for(int i = 0; i < bucketNames.length; i++) {
+			if(bucketNames[i] == null) {
+				bucketNames[i] = term;
+				counts[i] = 1;
+				return;
+			}
+			if(bucketNames[i].equals(term)) {
+				counts[i]++;
+				return;
+			}
+			if(counts[i] < counts[min]) min = i;
+		}
+		bucketNames[min] = term;
+		this.nameErrors[b][min] = counts[min];
+		counts[min]++;
+	}
+	
+	private String label(int b) {
+		if(this.names == null || this.names[b] == null)
+			return "#" + b; //Empty bucket
+		String[] bucketNames = this.names[b];
+		long[] counts = this.nameCounts[b];
+		long[] errors = this.nameErrors[b];
+		Integer[] order = new Integer[bucketNames.length];
+		for(int i = 0; i < order.length; i++)
+			order[i] = i;
+		/* Rank by guaranteed count, then by estimated count */
+		Arrays.sort(order, (x, y) -> {
+			int c = Long.compare(counts[y] - errors[y], counts[x] - errors[x]);
+			return c != 0 ? c : Long.compare(counts[y], counts[x]);
+		});
+		StringBuilder sb = new StringBuilder();
+		int kept = 0;
+		for(int i : order) {
+			if(bucketNames[i] == null) continue;
+			if(kept++ == this.namesPerBucket) break;
+			if(sb.length() > 0) sb.append("|");
+			sb.append(bucketNames[i]);
+		}
+		return sb.toString();
+	}
+	
+	/* Fields are only filled in when a recording is running */
+	private void commit(MatrixFlushEvent event, String matName, int documents) {
+		if(!event.shouldCommit()) return;
+		event.matrix = matName;
+		event.documents = documents;
+		event.commit();
+	}
+	
+	/* Rows are written as soon as a file is read, nothing is kept in memory */
+	private void getHashedMatrix(String[]fileList,  String inDir,
+			String matName) {
+		MatrixFlushEvent event = new MatrixFlushEvent();
+		event.begin();
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(matName), StandardCharsets.UTF_8.toString()));
+			for(int i = 0; i < fileList.length; i++) {
+				LongCounter locMap = new LongCounter(16);
+				try {
+					Scanner sc = new Scanner(new FileInputStream(inDir + "/" +
+							fileList[i]), StandardCharsets.UTF_8.toString());
+					while(sc.hasNext()) {
+						String term = sc.next();
+						if(this.filter == null || this.filter.contains(term))
+							locMap.add(this.bucket(term), 1);
+					}
+					sc.close();
+				} catch (FileNotFoundException e) {
+					e.printStackTrace();
+				}
+				StringBuilder sb = new StringBuilder();
+				sb.append(locMap.size()); //# of unique buckets
+				locMap.forEach((key, count) -> sb.append(" ").append(key).append(":")
+						.append(count));
+				writer.println(sb.toString());
+			}
+			writer.close();
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+		this.commit(event, matName, fileList.length);
+	}
+	
+	/**
+	 * Build vocabXXX and matXXX.ldac of one combination.
+	 * @param baseDir - base directory that contains the 6 output directories
+	 * @param combi - combination name, e.g. "S" or "VO"
+	 */
+	public static void build(String baseDir, String combi) {
+		LDACMatrix.build(baseDir, combi, null);
+	}
+	
+	/**
+	 * Build vocabXXX and matXXX.ldac of one combination with selected terms.
+	 * @param baseDir - base directory that contains the 6 output directories
+	 * @param combi - combination name, e.g. "S" or "VO"
+	 * @param filter - terms to keep, or null to keep all terms
+	 */
+	public static void build(String baseDir, String combi, Set<String> filter) {
+		LDACMatrix.build(baseDir, combi, filter, 0, 0);
+	}
+	
+	/**
+	 * Build vocabXXX and matXXX.ldac of one combination with selected terms,
+	 * optionally hashing terms into a fixed number of buckets.
+	 * @param baseDir - base directory that contains the 6 output directories
+	 * @param combi - combination name, e.g. "S" or "VO"
+	 * @param filter - terms to keep, or null to keep all terms
+	 * @param buckets - number of buckets, or 0 to keep all terms
+	 * @param namesPerBucket - number of terms kept to label each bucket
+	 */
+	public static void build(String baseDir, String combi, Set<String> filter,
+			int buckets, int namesPerBucket) {
+		File dir = new File(baseDir + "/" + combi);
+		String[] fileList = dir.list(); //Get all the files of the source folder
+		Arrays.sort(fileList);
+		LDACMatrix ldac = new LDACMatrix();
+		ldac.setFilter(filter);
+		ldac.setHashing(buckets, namesPerBucket);
+		ldac.populateVocab(fileList, baseDir + "/" + combi, "vocab" + combi);
+		ldac.getMatrix(fileList, baseDir + "/" + combi, "vocab" + combi, "mat"
+				+ combi + ".ldac");
+	}
+	
+	/**
+	 * Build vocabXXX shared by all time windows and one matXXX_wN.ldac per
+	 * window. Every document is read once; a document is written to every
+	 * window that contains its timestamp. Windows are tumbling if slide equals
+	 * window and sliding if slide is shorter.
+	 * @param fileList - names of documents
+	 * @param inDir - input directory
+	 * @param timestamps - a map from file name to timestamp in milliseconds
+	 * @param window - length of a window in milliseconds
+	 * @param slide - distance between starts of windows in milliseconds
+	 * @param vocabName - name of the shared vocabulary file
+	 * @param matPrefix - prefix of matrix files, e.g. "matVO"
+	 */
+	public void getWindowMatrices(String[] fileList, String inDir, Map<String,
+			Long> timestamps, long window, long slide, String vocabName,
+			String matPrefix) {
+		ArrayList<String> docs = new ArrayList<>();
+		for(String name : fileList)
+			if(timestamps.containsKey(name))
+				docs.add(name);
+			else
+				System.err.println("No timestamp for " + name);
+		if(docs.isEmpty()) return;
+		Collections.sort(docs, (a, b) -> Long.compare(timestamps.get(a),
+				timestamps.get(b)));
+		long start = timestamps.get(docs.get(0));
+		
+		LinkedHashMap<String, Integer> ids = new LinkedHashMap<>();
+		if(this.buckets > 0) {
+			this.names = new String[this.buckets][];
+			this.nameCounts = new long[this.buckets][];
+			this.nameErrors = new long[this.buckets][];
+		}
+		TreeMap<Integer, PrintWriter> open = new TreeMap<>();
+		HashMap<Integer, Integer> docCounts = new HashMap<>();
+		try {
+			PrintWriter windows = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(matPrefix + "_windows.tsv"),
+					StandardCharsets.UTF_8.toString()));
+			PrintWriter members = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(matPrefix + "_docs.tsv"),
+					StandardCharsets.UTF_8.toString()));
+			for(String name : docs) {
+				long offset = timestamps.get(name) - start;
+				int first = offset < window ? 0 : (int) ((offset - window) / slide + 1);
+				int last = (int) (offset / slide);
+				/* Documents are sorted, so earlier windows are complete */
+				while(!open.isEmpty() && open.firstKey() < first) {
+					int k = open.firstKey();
+					open.pollFirstEntry().getValue().close();
+					windows.println(k + "\t" + (start + k * slide) + "\t" +
+							(start + k * slide + window) + "\t" + docCounts.get(k));
+				}
+				
+				String row = this.getRow(inDir + "/" + name, ids);
+				for(int k = first; k <= last; k++) {
+					PrintWriter writer = open.get(k);
+					if(writer == null) {
+						writer = new PrintWriter(new OutputStreamWriter(new
+								FileOutputStream(matPrefix + "_w" + k + ".ldac"),
+								StandardCharsets.UTF_8.toString()));
+						open.put(k, writer);
+						docCounts.put(k, 0);
+					}
+					writer.println(row);
+					docCounts.put(k, docCounts.get(k) + 1);
+					members.println(k + "\t" + name);
+				}
+			}
+			for(Entry<Integer, PrintWriter> entry : open.entrySet()) {
+				int k = entry.getKey();
+				entry.getValue().close();
+				windows.println(k + "\t" + (start + k * slide) + "\t" +
+						(start + k * slide + window) + "\t" + docCounts.get(k));
+			}
+			windows.close();
+			members.close();
+			
+			/* Output vocabularies shared by all windows */
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(vocabName), StandardCharsets.UTF_8.toString()));
+			if(this.buckets > 0)
+				for(int b = 0; b < this.buckets; b++)
+					writer.println(this.label(b));
+			else
+				for(String term : ids.keySet())
+					writer.println(term);
+			writer.close();
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+		this.names = null;
+		this.nameCounts = null;
+		this.nameErrors = null;
+	}
+	
+	/* Read a document once and return its LDA-C row, growing the vocabulary */
+	private String getRow(String path, LinkedHashMap<String, Integer> ids) {
+		LongCounter locMap = new LongCounter(16);
+		try {
+			Scanner sc = new Scanner(new FileInputStream(path),
+					StandardCharsets.UTF_8.toString());
+			while(sc.hasNext()) {
+				String term = sc.next();
+				if(this.filter != null && !this.filter.contains(term)) continue;
+				if(this.buckets > 0) {
+					int b = this.bucket(term);
+					this.countName(b, term);
+					locMap.add(b, 1);
+				} else {
+					Integer id = ids.get(term);
+					if(id == null) {
+						id = ids.size();
+						ids.put(term, id);
+					}
+					locMap.add(id, 1);
+				}
+			}
+			sc.close();
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append(locMap.size()); //# of unique words
+		locMap.forEach((key, count) -> sb.append(" ").append(key).append(":")
+				.append(count));
+		return sb.toString();
+	}
+	
+	/**
+	 * Build vocabXXX and one matXXX_wN.ldac per time window of one combination
+	 * in a single pass.
+	 * @param baseDir - base directory that contains the 6 output directories
+	 * @param combi - combination name, e.g. "S" or "VO"
+	 * @param timestamps - a map from file name to timestamp in milliseconds
+	 * @param window - length of a window in milliseconds
+	 * @param slide - distance between starts of windows in milliseconds
+	 * @param buckets - number of buckets, or 0 to keep all terms
+	 * @param namesPerBucket - number of terms kept to label each bucket
+	 */
+	public static void buildWindows(String baseDir, String combi, Map<String,
+			Long> timestamps, long window, long slide, int buckets,
+			int namesPerBucket) {
+		String[] fileList = new File(baseDir + "/" + combi).list();
+		LDACMatrix ldac = new LDACMatrix();
+		ldac.setHashing(buckets, namesPerBucket);
+		ldac.getWindowMatrices(fileList, baseDir + "/" + combi, timestamps,
+				window, slide, "vocab" + combi, "mat" + combi);
+	}
+	
+	/**
+	 * Parse a period such as "1week", "3day", "1month" (30 days) or "1year"
+	 * (365 days).
+	 * @param period - period string
+	 * @return length of period in milliseconds
+	 */
+	public static long parsePeriod(String period) {
+		Matcher m = Pattern.compile("(\\d+)\\s*(day|week|month|year)s?")
+				.matcher(period.trim());
+		if(!m.matches())
+			throw new IllegalArgumentException("Unknown period: " + period);
+		long days = 1;
+		switch(m.group(2)) {
+		case "week":
+			days = 7;
+			break;
+		case "month":
+			days = 30;
+			break;
+		case "year":
+			days = 365;
+			break;
+		}
+		return Long.parseLong(m.group(1)) * days * 24 * 60 * 60 * 1000;
 	}
 	
 	public static void main (String[] args) {
 			String[] combinations = {"S", "V", "O", "SV", "VO", "SO"};
-			for(String combi : combinations) {
-				File dir = new File(args[0] + "/" + combi);
-		    String[] fileList = dir.list(); //Get all the files of the source folder
-		    Arrays.sort(fileList);
-		    LDACMatrix ldac = new LDACMatrix();
-		    ldac.populateVocab(fileList, args[0] + "/" + combi, "vocab" + combi);
-		    ldac.getMatrix(fileList, args[0] + "/" + combi, "vocab" + combi, "mat"
-		    + combi + ".ldac");
+			/* Options: -hash buckets [namesPerBucket],
+			 * -window timestamps size [slide] */
+			int buckets = 0;
+			int namesPerBucket = 3;
+			String timestamps = null;
+			long window = 0;
+			long slide = 0;
+			for(int i = 1; i < args.length; i++) {
+				if(args[i].equals("-hash")) {
+					buckets = Integer.parseInt(args[++i]);
+					if(i + 1 < args.length && !args[i + 1].startsWith("-"))
+						namesPerBucket = Integer.parseInt(args[++i]);
+				} else if(args[i].equals("-window")) {
+					timestamps = args[++i];
+					window = LDACMatrix.parsePeriod(args[++i]);
+					slide = window;
+					if(i + 1 < args.length && !args[i + 1].startsWith("-"))
+						slide = LDACMatrix.parsePeriod(args[++i]);
+				}
 			}
+			for(String combi : combinations)
+				if(timestamps != null)
+					LDACMatrix.buildWindows(args[0], combi, TableReader.readTimestamps(
+							timestamps), window, slide, buckets, namesPerBucket);
+				else
+					LDACMatrix.build(args[0], combi, null, buckets, namesPerBucket);
 	  }
-}
\ No newline at end of file
+}
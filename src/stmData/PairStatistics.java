@@ -0,0 +1,235 @@
+package stmData;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import utils.LongCounter;
+
+/**
+ * Association statistics of "a-b" pairs in SV, VO, or SO output: pair
+ * counts, marginal counts, PMI, normalized PMI and log-likelihood ratio.
+ * Counting is done in parallel over files with primitive long-keyed
+ * counters, where a key packs the term IDs of both sides.
+ * @since 10-19-2026
+ */
+public class PairStatistics {
+	static final String HEADER = "pair\tcount\tleft\tright\tpmi\tnpmi\tllr";
+
+	private int threads;
+	private ConcurrentHashMap<String, Integer> ids;
+	private AtomicInteger nextId;
+	private String[] terms;
+	private LongCounter pairs;
+	private LongCounter left;
+	private LongCounter right;
+	private long total;
+
+	/**
+	 * Constructor.
+	 * @param threads - number of threads used for counting
+	 */
+	public PairStatistics(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * Count pairs and marginals of all files in a directory.
+	 * @param inDir - directory of SV, VO, or SO output
+	 */
+	public void count(String inDir) {
+		this.ids = new ConcurrentHashMap<>();
+		this.nextId = new AtomicInteger();
+		this.pairs = new LongCounter();
+		this.left = new LongCounter();
+		this.right = new LongCounter();
+		this.total = 0;
+		File[] files = new File(inDir).listFiles();
+
+		ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+		List<Future<LongCounter[]>> results = new ArrayList<>();
+		for(int t = 0; t < this.threads; t++) {
+			final int offset = t;
+			results.add(pool.submit(() -> this.countSlice(files, offset)));
+		}
+		pool.shutdown();
+		for(Future<LongCounter[]> result : results) {
+			try {
+				LongCounter[] local = result.get();
+				this.pairs.merge(local[0]);
+				this.left.merge(local[1]);
+				this.right.merge(local[2]);
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+		this.pairs.forEach((key, count) -> this.total += count);
+
+		this.terms = new String[this.nextId.get()];
+		for(Entry<String, Integer> entry : this.ids.entrySet())
+			this.terms[entry.getValue()] = entry.getKey();
+	}
+
+	/* Every thread counts files offset, offset + threads, ... */
+	private LongCounter[] countSlice(File[] files, int offset) {
+		LongCounter[] local = {new LongCounter(), new LongCounter(),
+				new LongCounter()};
+		for(int i = offset; i < files.length; i += this.threads) {
+			try {
+				Scanner sc = new Scanner(new FileInputStream(files[i]),
+						StandardCharsets.UTF_8.toString());
+				while(sc.hasNext()) {
+					String pair = sc.next();
+					int dash = pair.indexOf('-');
+					if(dash <= 0 || dash == pair.length() - 1) continue;
+					int a = this.id(pair.substring(0, dash));
+					int b = this.id(pair.substring(dash + 1));
+					local[0].add(LongCounter.pack(a, b), 1);
+					local[1].add(a, 1);
+					local[2].add(b, 1);
+				}
+				sc.close();
+			} catch (FileNotFoundException e) {
+				e.printStackTrace();
+			}
+		}
+		return local;
+	}
+
+	private int id(String term) {
+		Integer id = this.ids.get(term);
+		if(id != null) return id;
+		return this.ids.computeIfAbsent(term, k -> this.nextId.getAndIncrement());
+	}
+
+	/**
+	 * Output statistics of all pairs seen at least minCount times.
+	 * @param path - path to output table
+	 * @param minCount - minimum pair count
+	 */
+	public void writeTable(String path, int minCount) {
+		try {
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+					FileOutputStream(path), StandardCharsets.UTF_8.toString()));
+			writer.println(HEADER);
+			this.pairs.forEach((key, count) -> {
+				if(count < minCount) return;
+				int a = LongCounter.high(key);
+				int b = LongCounter.low(key);
+				long ca = this.left.get(a);
+				long cb = this.right.get(b);
+				writer.println(this.terms[a] + "-" + this.terms[b] + "\t" + count +
+						"\t" + ca + "\t" + cb + "\t" + pmi(count, ca, cb, this.total) +
+						"\t" + npmi(count, ca, cb, this.total) + "\t" +
+						llr(count, ca, cb, this.total));
+			});
+			writer.close();
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Select pairs whose association is above a threshold.
+	 * @param measure - "pmi", "npmi", or "llr"
+	 * @param threshold - minimum value of the measure
+	 * @param minCount - minimum pair count
+	 * @return pairs in "a-b" form
+	 */
+	public Set<String> select(String measure, double threshold, int minCount) {
+		HashSet<String> selected = new HashSet<>();
+		this.pairs.forEach((key, count) -> {
+			if(count < minCount) return;
+			int a = LongCounter.high(key);
+			int b = LongCounter.low(key);
+			long ca = this.left.get(a);
+			long cb = this.right.get(b);
+			double value;
+			switch(measure) {
+			case "pmi":
+				value = pmi(count, ca, cb, this.total);
+				break;
+			case "npmi":
+				value = npmi(count, ca, cb, this.total);
+				break;
+			case "llr":
+				value = llr(count, ca, cb, this.total);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown measure: " + measure);
+			}
+			if(value >= threshold)
+				selected.add(this.terms[a] + "-" + this.terms[b]);
+		});
+		return selected;
+	}
+
+	/**
+	 * Pointwise mutual information, log(p(a,b) / (p(a)p(b))).
+	 */
+	static double pmi(long cab, long ca, long cb, long n) {
+		return Math.log((double) cab * n / ((double) ca * cb));
+	}
+
+	/**
+	 * PMI normalized to [-1, 1] by -log(p(a,b)).
+	 */
+	static double npmi(long cab, long ca, long cb, long n) {
+		if(cab == n) return 1;
+		return pmi(cab, ca, cb, n) / -Math.log((double) cab / n);
+	}
+
+	/**
+	 * Dunning's log-likelihood ratio (G-squared) of the 2x2 contingency table.
+	 */
+	static double llr(long cab, long ca, long cb, long n) {
+		long k11 = cab;
+		long k12 = ca - cab;
+		long k21 = cb - cab;
+		long k22 = n - ca - cb + cab;
+		return 2 * (xlogx(k11, ca, cb, n) + xlogx(k12, ca, n - cb, n) +
+				xlogx(k21, n - ca, cb, n) + xlogx(k22, n - ca, n - cb, n));
+	}
+
+	/* k * log(k / expected), where expected = row * col / n */
+	private static double xlogx(long k, long row, long col, long n) {
+		if(k <= 0) return 0;
+		return k * Math.log((double) k * n / ((double) row * col));
+	}
+
+	/**
+	 * Arguments: base directory that contains SV, VO and SO, and optionally a
+	 * measure ("pmi", "npmi", or "llr"), a threshold and a minimum count. With
+	 * a threshold, matSV.ldac, matVO.ldac and matSO.ldac only keep pairs above
+	 * it.
+	 */
+	public static void main(String[] args) {
+		String[] combinations = {"SV", "VO", "SO"};
+		int minCount = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		PairStatistics stats = new PairStatistics(Runtime.getRuntime()
+				.availableProcessors());
+		for(String combi : combinations) {
+			stats.count(args[0] + "/" + combi);
+			stats.writeTable("pairStats" + combi + ".tsv", minCount);
+			if(args.length > 2)
+				LDACMatrix.build(args[0], combi, stats.select(args[1],
+						Double.parseDouble(args[2]), minCount));
+		}
+	}
+}
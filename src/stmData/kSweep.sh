@@ -0,0 +1,6 @@
+#!/bin/bash
+
+# Fit S, V, O, SV, VO and SO for every K and seed in parallel;
+# results are merged into diagnostics.csv. Run from this directory,
+# next to KFit.R and the matrices; Java 11 runs the source file directly.
+java KSweepScheduler.java . 5,10,20,30 1,2,3
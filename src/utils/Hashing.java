@@ -0,0 +1,59 @@
+package utils;
+
+/**
+ * Fast non-cryptographic hash functions (MurmurHash3 finalizers) for strings
+ * and numbers.
+ * @since 10-19-2026
+ */
+public class Hashing {
+	static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Mix all bits of a 64-bit value.
+	 * @param h - value to mix
+	 * @return mixed value
+	 */
+	public static long mix64(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * 64-bit hash of a range of characters.
+	 * @param s - input string
+	 * @param from - start index, inclusive
+	 * @param to - end index, exclusive
+	 * @param seed - hash seed
+	 * @return hash value
+	 */
+	public static long hash64(CharSequence s, int from, int to, long seed) {
+		long h = seed ^ ((to - from) * GOLDEN);
+		for(int i = from; i < to; i++)
+			h = (h ^ s.charAt(i)) * 0x100000001b3L; //FNV-1a step
+		return mix64(h);
+	}
+
+	/**
+	 * 64-bit hash of a string.
+	 * @param s - input string
+	 * @param seed - hash seed
+	 * @return hash value
+	 */
+	public static long hash64(CharSequence s, long seed) {
+		return hash64(s, 0, s.length(), seed);
+	}
+
+	/**
+	 * Derive the i-th independent hash from a base hash.
+	 * @param h - base hash
+	 * @param i - index of hash function
+	 * @return hash value
+	 */
+	public static long rehash(long h, int i) {
+		return mix64(h + (i + 1) * GOLDEN);
+	}
+}
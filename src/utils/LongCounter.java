@@ -0,0 +1,142 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A counter from primitive long keys to long counts, using open addressing
+ * and linear probing to avoid boxing. Keys must be non-negative.
+ * @since 10-19-2026
+ */
+public class LongCounter {
+	static final long EMPTY = -1L;
+
+	/**
+	 * Callback for iterating over all keys.
+	 */
+	public interface Visitor {
+		void visit(long key, long count);
+	}
+
+	private long[] keys;
+	private long[] counts;
+	private int size;
+
+	/**
+	 * Default constructor.
+	 */
+	public LongCounter() {
+		this(1024);
+	}
+
+	/**
+	 * Constructor.
+	 * @param expected - expected number of keys
+	 */
+	public LongCounter(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) * 2;
+		this.keys = new long[capacity];
+		this.counts = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+	}
+
+	/**
+	 * Pack two non-negative ints into one key.
+	 * @param a - high part
+	 * @param b - low part
+	 * @return packed key
+	 */
+	public static long pack(int a, int b) {
+		return ((long) a << 32) | (b & 0xffffffffL);
+	}
+
+	/**
+	 * @param key - packed key
+	 * @return high part of key
+	 */
+	public static int high(long key) {
+		return (int) (key >>> 32);
+	}
+
+	/**
+	 * @param key - packed key
+	 * @return low part of key
+	 */
+	public static int low(long key) {
+		return (int) key;
+	}
+
+	/**
+	 * Add to the count of a key.
+	 * @param key - non-negative key
+	 * @param delta - amount to add
+	 */
+	public void add(long key, long delta) {
+		int slot = this.slot(key);
+		if(this.keys[slot] == EMPTY) {
+			this.keys[slot] = key;
+			this.size++;
+			if(this.size * 2 > this.keys.length) { //Keep load factor under 0.5
+				this.counts[slot] = delta;
+				this.grow();
+				return;
+			}
+		}
+		this.counts[slot] += delta;
+	}
+
+	/**
+	 * @param key - non-negative key
+	 * @return count of the key, 0 if absent
+	 */
+	public long get(long key) {
+		int slot = this.slot(key);
+		return this.keys[slot] == EMPTY ? 0 : this.counts[slot];
+	}
+
+	/**
+	 * @return number of distinct keys
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Add all counts of another counter to this one.
+	 * @param other - counter to merge
+	 */
+	public void merge(LongCounter other) {
+		other.forEach(this::add);
+	}
+
+	/**
+	 * Visit every key and its count, in no particular order.
+	 * @param visitor - callback
+	 */
+	public void forEach(Visitor visitor) {
+		for(int i = 0; i < this.keys.length; i++)
+			if(this.keys[i] != EMPTY)
+				visitor.visit(this.keys[i], this.counts[i]);
+	}
+
+	private int slot(long key) {
+		int mask = this.keys.length - 1;
+		int i = (int) Hashing.mix64(key) & mask;
+		while(this.keys[i] != EMPTY && this.keys[i] != key)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	private void grow() {
+		long[] oldKeys = this.keys;
+		long[] oldCounts = this.counts;
+		this.keys = new long[oldKeys.length * 2];
+		this.counts = new long[oldKeys.length * 2];
+		Arrays.fill(this.keys, EMPTY);
+		for(int i = 0; i < oldKeys.length; i++)
+			if(oldKeys[i] != EMPTY) {
+				int slot = this.slot(oldKeys[i]);
+				this.keys[slot] = oldKeys[i];
+				this.counts[slot] = oldCounts[i];
+			}
+	}
+}
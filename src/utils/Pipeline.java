@@ -0,0 +1,238 @@
+package utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A make-like runner that executes stages of a DAG. Each stage is keyed by a
+ * hash of its configuration and input files; a stage is only executed again
+ * if its key changed since the last successful run or one of its outputs is
+ * missing. Stages whose dependencies are done run in parallel.
+ * @since 10-19-2026
+ */
+public class Pipeline {
+	/**
+	 * Work done by a single stage.
+	 */
+	public interface Action {
+		void run() throws Exception;
+	}
+
+	private static class Stage {
+		String name;
+		List<String> deps;
+		List<File> inputs;
+		List<File> outputs;
+		String config;
+		Action action;
+	}
+
+	private LinkedHashMap<String, Stage> stages;
+	private File stampDir;
+	private int threads;
+
+	/**
+	 * Constructor.
+	 * @param stampDir - directory to store keys of finished stages
+	 * @param threads - maximum number of stages running at the same time
+	 */
+	public Pipeline(File stampDir, int threads) {
+		this.stages = new LinkedHashMap<>();
+		this.stampDir = stampDir;
+		this.threads = threads;
+	}
+
+	/**
+	 * Add a stage to the pipeline. Dependencies must be added beforehand.
+	 * @param name - unique name of the stage
+	 * @param deps - names of stages that have to finish first
+	 * @param inputs - files or directories read by the stage
+	 * @param outputs - files or directories written by the stage, deleted
+	 * before it runs so results of earlier runs do not mix in
+	 * @param config - any setting that changes the result of the stage
+	 * @param action - work of the stage, which fails by throwing
+	 */
+	public void addStage(String name, String[] deps, File[] inputs,
+			File[] outputs, String config, Action action) {
+		for(String dep : deps)
+			if(!this.stages.containsKey(dep))
+				throw new IllegalArgumentException("Unknown stage: " + dep);
+		Stage stage = new Stage();
+		stage.name = name;
+		stage.deps = Arrays.asList(deps);
+		stage.inputs = Arrays.asList(inputs);
+		stage.outputs = Arrays.asList(outputs);
+		stage.config = config;
+		stage.action = action;
+		this.stages.put(name, stage);
+	}
+
+	/**
+	 * Run all stages in dependency order. Stages depending on a failed stage
+	 * are skipped.
+	 * @return true if every stage succeeded
+	 */
+	public boolean run() {
+		this.stampDir.mkdirs();
+		HashMap<String, Integer> pending = new HashMap<>();
+		HashMap<String, List<String>> dependents = new HashMap<>();
+		for(Stage stage : this.stages.values()) {
+			pending.put(stage.name, stage.deps.size());
+			dependents.put(stage.name, new ArrayList<>());
+			for(String dep : stage.deps)
+				dependents.get(dep).add(stage.name);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+		CompletionService<String> service = new ExecutorCompletionService<>(pool);
+		HashSet<String> failed = new HashSet<>();
+		int running = 0;
+		for(Stage stage : this.stages.values())
+			if(stage.deps.isEmpty()) {
+				service.submit(() -> this.execute(stage));
+				running++;
+			}
+
+		while(running > 0) {
+			String done = null;
+			try {
+				done = service.take().get();
+			} catch (InterruptedException | ExecutionException e) {
+				/* execute() reports its own failures; only interruptions end up here */
+				e.printStackTrace();
+				break;
+			}
+			running--;
+			String name = done.substring(1);
+			if(done.charAt(0) == '-')
+				failed.add(name);
+			for(String next : dependents.get(name)) {
+				if(failed.contains(name)) failed.add(next);
+				int count = pending.get(next) - 1;
+				pending.put(next, count);
+				if(count > 0) continue;
+				if(failed.contains(next)) {
+					System.err.println("Skipping stage " + next);
+					this.skipDependents(next, dependents, failed);
+					continue;
+				}
+				Stage stage = this.stages.get(next);
+				service.submit(() -> this.execute(stage));
+				running++;
+			}
+		}
+		pool.shutdown();
+		return failed.isEmpty() && running == 0;
+	}
+
+	private void skipDependents(String name, HashMap<String, List<String>>
+	dependents, HashSet<String> failed) {
+		for(String next : dependents.get(name))
+			if(failed.add(next))
+				this.skipDependents(next, dependents, failed);
+	}
+
+	/* Returns the stage name prefixed by '+' on success and '-' on failure */
+	private String execute(Stage stage) {
+		String key = this.key(stage);
+		File stamp = new File(this.stampDir, stage.name);
+		boolean outputsExist = true;
+		for(File output : stage.outputs)
+			outputsExist &= output.exists();
+		if(outputsExist && key.equals(this.readStamp(stamp))) {
+			System.out.println("Up to date: " + stage.name);
+			return "+" + stage.name;
+		}
+
+		System.out.println("Running stage: " + stage.name);
+		stamp.delete();
+		for(File output : stage.outputs)
+			this.delete(output);
+		try {
+			stage.action.run();
+		} catch (Exception e) {
+			e.printStackTrace();
+			stamp.delete();
+			return "-" + stage.name;
+		}
+		/* Inputs may be rewritten by the stage itself, so hash them again */
+		this.writeStamp(stamp, this.key(stage));
+		return "+" + stage.name;
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if(children != null)
+			for(File child : children)
+				this.delete(child);
+		file.delete();
+	}
+
+	private String key(Stage stage) {
+		MessageDigest digest = null;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(stage.config.getBytes(StandardCharsets.UTF_8));
+		for(File input : stage.inputs)
+			this.hashFile(digest, input);
+		StringBuilder sb = new StringBuilder();
+		for(byte b : digest.digest())
+			sb.append(String.format("%02x", b));
+		return sb.toString();
+	}
+
+	/* Hash path, size and modification time; contents are too large to read */
+	private void hashFile(MessageDigest digest, File file) {
+		digest.update(file.getPath().getBytes(StandardCharsets.UTF_8));
+		if(file.isDirectory()) {
+			File[] children = file.listFiles();
+			Arrays.sort(children);
+			for(File child : children)
+				this.hashFile(digest, child);
+		} else if(file.exists()) {
+			digest.update((file.length() + ":" + file.lastModified()).getBytes(
+					StandardCharsets.UTF_8));
+		}
+	}
+
+	private String readStamp(File stamp) {
+		try(Scanner sc = new Scanner(new FileInputStream(stamp),
+				StandardCharsets.UTF_8.toString())) {
+			return sc.hasNext() ? sc.next() : null;
+		} catch (FileNotFoundException e) {
+			return null; //Never ran before
+		}
+	}
+
+	private void writeStamp(File stamp, String key) {
+		try(PrintWriter writer = new PrintWriter(new OutputStreamWriter(new
+				FileOutputStream(stamp), StandardCharsets.UTF_8.toString()))) {
+			writer.println(key);
+		} catch (UnsupportedEncodingException | FileNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -1,12 +1,19 @@
 package utils;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
 
 import au.com.bytecode.opencsv.CSVReader;
 
@@ -16,6 +23,8 @@ import au.com.bytecode.opencsv.CSVReader;
  * @since 02-25-2018
  */
 public class TableReader {
+	public static final String TIMESTAMPS = "timestamps.tsv";
+	
 	public static void tableToFiles(String table, String output) {
 		String row[] = null;
 		try(CSVReader reader = new CSVReader((new InputStreamReader(new 
@@ -34,4 +43,100 @@ public class TableReader {
 			e.printStackTrace();
 		}
 	}
+	
+	/**
+	 * Write the text column of every row to its own file, named by row number.
+	 * Rows without the text column are skipped as malformed.
+	 * @param table - CSV table of documents
+	 * @param output - output directory
+	 * @param textCol - index of the text column
+	 * @param header - whether the first row is a header to skip
+	 * @return number of documents written, or -1 if the table could not be
+	 * read or a document could not be written
+	 */
+	public static int tableToFiles(String table, String output, int textCol,
+			boolean header) {
+		String row[] = null;
+		new File(output).mkdirs();
+		int count = 0;
+		try(CSVReader reader = new CSVReader((new InputStreamReader(new 
+				FileInputStream(table), StandardCharsets.UTF_8)))) {
+			if(header)
+				reader.readNext();
+			while((row = reader.readNext()) != null) {
+				if(row.length <= textCol || row[textCol].trim().isEmpty()) continue;
+				String name = String.format("%08d.txt", count++);
+				try(BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(output + "/" + name), StandardCharsets.UTF_8))) {
+					writer.write(row[textCol]);
+				}
+			}
+		} catch(IOException e) {
+			e.printStackTrace();
+			return -1;
+		}
+		return count;
+	}
+	
+	/**
+	 * Write the text column of every row to its own file and record the
+	 * timestamp of each document in "OUTPUT_timestamps.tsv" next to the output
+	 * directory, so matrices can be built per time window.
+	 * @param table - CSV table of documents
+	 * @param output - output directory
+	 * @param textCol - index of the text column
+	 * @param dateCol - index of the date column
+	 * @param dateFormat - format of the date column, e.g. "yyyy-MM-dd"
+	 */
+	public static void tableToFiles(String table, String output, int textCol,
+			int dateCol, String dateFormat) {
+		String row[] = null;
+		new File(output).mkdirs();
+		SimpleDateFormat format = new SimpleDateFormat(dateFormat);
+		try(CSVReader reader = new CSVReader((new InputStreamReader(new 
+				FileInputStream(table), StandardCharsets.UTF_8)));
+				BufferedWriter index = new BufferedWriter(new OutputStreamWriter(new
+						FileOutputStream(output + "_" + TIMESTAMPS),
+						StandardCharsets.UTF_8))) {
+			int count = 0;
+			while((row = reader.readNext()) != null) {
+				if(row.length <= Math.max(textCol, dateCol)) continue;
+				Date date = null;
+				try {
+					date = format.parse(row[dateCol].trim());
+				} catch (ParseException e) {
+					continue; //Header or malformed row
+				}
+				String name = String.format("%08d.txt", count++);
+				try(BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(output + "/" + name), StandardCharsets.UTF_8))) {
+					writer.write(row[textCol]);
+				}
+				index.write(name + "\t" + date.getTime());
+				index.newLine();
+			}
+		} catch(IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Read timestamps written by tableToFiles.
+	 * @param path - path to "OUTPUT_timestamps.tsv"
+	 * @return a map from file name to timestamp in milliseconds
+	 */
+	public static Map<String, Long> readTimestamps(String path) {
+		HashMap<String, Long> timestamps = new HashMap<>();
+		try(Scanner sc = new Scanner(new InputStreamReader(new FileInputStream(path),
+				StandardCharsets.UTF_8))) {
+			while(sc.hasNextLine()) {
+				String[] fields = sc.nextLine().split("\t");
+				if(fields.length == 2)
+					timestamps.put(fields[0], Long.parseLong(fields[1]));
+			}
+		} catch(IOException e) {
+			e.printStackTrace();
+		}
+		return timestamps;
+	}
 }
\ No newline at end of file